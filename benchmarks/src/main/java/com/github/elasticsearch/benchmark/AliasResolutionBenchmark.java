@@ -0,0 +1,51 @@
+package com.github.elasticsearch.benchmark;
+
+import com.github.elasticsearch.client.ElasticsearchTransportClient;
+import com.github.elasticsearch.client.Properties;
+import com.github.elasticsearch.dao.AbstractEsDao;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.elasticsearch.benchmark.StandInTransportClient.ALIAS;
+import static com.github.elasticsearch.benchmark.StandInTransportClient.INDEX;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AliasResolutionBenchmark {
+    @Param({"true", "false"})
+    public boolean aliasCache;
+
+    @Setup
+    public void setUp() {
+        Properties properties = StandInElasticsearchTransportClient.benchmarkProperties();
+        properties.setAliasCacheTtlMillis(aliasCache ? 60_000L : 0L);
+
+        transportClient = new StandInElasticsearchTransportClient(properties);
+        dao = new AbstractEsDao(transportClient);
+    }
+
+    @TearDown
+    public void tearDown() {
+        transportClient.close();
+    }
+
+    @Benchmark
+    public Optional<String> getIndexNameByAlias() {
+        return dao.getIndexNameByAlias(ALIAS);
+    }
+
+    @Benchmark
+    public boolean hasAlias() {
+        return dao.hasAlias(INDEX, ALIAS);
+    }
+
+    private ElasticsearchTransportClient transportClient;
+
+    private AbstractEsDao dao;
+}
@@ -0,0 +1,89 @@
+package com.github.elasticsearch.benchmark;
+
+import com.github.elasticsearch.model.AbstractEsDocument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BenchmarkDocument extends AbstractEsDocument {
+    private String title;
+    private String description;
+    private String category;
+    private long price;
+    private double score;
+    private boolean soldOut;
+    private List<String> tags = new ArrayList<>();
+
+    public BenchmarkDocument() {
+    }
+
+    public static BenchmarkDocument sample(int no) {
+        BenchmarkDocument document = new BenchmarkDocument();
+        document.setId(String.valueOf(no));
+        document.title = "benchmark document title " + no;
+        document.description = "상품 설명 benchmark description text for document number " + no;
+        document.category = "category-" + (no % 10);
+        document.price = 10_000L + no;
+        document.score = no * 0.1;
+        document.soldOut = no % 2 == 0;
+        document.tags = Arrays.asList("tag-a", "tag-b", "tag-" + no);
+        return document;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public void setPrice(long price) {
+        this.price = price;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public boolean isSoldOut() {
+        return soldOut;
+    }
+
+    public void setSoldOut(boolean soldOut) {
+        this.soldOut = soldOut;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+}
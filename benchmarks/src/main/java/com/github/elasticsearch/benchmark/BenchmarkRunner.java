@@ -0,0 +1,24 @@
+package com.github.elasticsearch.benchmark;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JMH 실행 진입점. 인자는 JMH 명령행 옵션을 그대로 받고,
+ * 할당량 비교를 위해 GC profiler와 JSON 결과 파일(jmh-result.json)을 기본으로 추가한다.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList("-prof", "gc"));
+
+        if (!Arrays.asList(args).contains("-rf")) {
+            arguments.addAll(Arrays.asList("-rf", "json"));
+        }
+
+        arguments.addAll(Arrays.asList(args));
+        Main.main(arguments.toArray(new String[0]));
+    }
+}
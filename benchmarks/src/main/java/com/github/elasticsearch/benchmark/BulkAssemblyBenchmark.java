@@ -0,0 +1,73 @@
+package com.github.elasticsearch.benchmark;
+
+import com.github.elasticsearch.bulk.EsBulkListener;
+import com.github.elasticsearch.bulk.EsBulkOptions;
+import com.github.elasticsearch.bulk.EsBulkWriter;
+import com.github.elasticsearch.client.ElasticsearchTransportClient;
+import com.github.elasticsearch.client.Properties;
+import com.github.elasticsearch.dao.AbstractEsDao;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.elasticsearch.benchmark.StandInTransportClient.INDEX;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkAssemblyBenchmark {
+    @Param({"100", "1000"})
+    public int batchSize;
+
+    @Param({"false", "true"})
+    public boolean pooled;
+
+    @Setup
+    public void setUp() {
+        Properties properties = StandInElasticsearchTransportClient.benchmarkProperties();
+
+        if (pooled) {
+            properties.setBulkBufferPoolSizeInBytes(64L * 1024 * 1024);
+        }
+
+        transportClient = new StandInElasticsearchTransportClient(properties);
+        documents = new BenchmarkDocument[batchSize];
+
+        for (int i = 0; i < batchSize; i++) {
+            documents[i] = BenchmarkDocument.sample(i);
+        }
+
+        EsBulkOptions options = new EsBulkOptions();
+        options.setBulkActions(batchSize);
+        options.setBulkSizeInBytes(0);
+        options.setFlushIntervalMillis(0);
+        options.setConcurrentRequests(0);
+
+        AbstractEsDao dao = new AbstractEsDao(transportClient);
+        writer = dao.bulkWriter(INDEX, null, dao.documentCodec(), options, EsBulkListener.NONE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        writer.close();
+        transportClient.close();
+    }
+
+    @Benchmark
+    public EsBulkWriter<BenchmarkDocument> assembleAndSubmit() {
+        for (BenchmarkDocument document : documents) {
+            writer.add(document);
+        }
+
+        return writer;
+    }
+
+    private ElasticsearchTransportClient transportClient;
+
+    private BenchmarkDocument[] documents;
+
+    private EsBulkWriter<BenchmarkDocument> writer;
+}
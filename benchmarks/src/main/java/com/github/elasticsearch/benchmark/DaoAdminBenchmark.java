@@ -0,0 +1,54 @@
+package com.github.elasticsearch.benchmark;
+
+import com.github.elasticsearch.client.ElasticsearchTransportClient;
+import com.github.elasticsearch.dao.AbstractEsDao;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.elasticsearch.benchmark.StandInTransportClient.ALIAS;
+import static com.github.elasticsearch.benchmark.StandInTransportClient.INDEX;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DaoAdminBenchmark {
+    @Setup
+    public void setUp() {
+        transportClient = new StandInElasticsearchTransportClient(StandInElasticsearchTransportClient.benchmarkProperties());
+        dao = new AbstractEsDao(transportClient);
+    }
+
+    @TearDown
+    public void tearDown() {
+        transportClient.close();
+    }
+
+    @Benchmark
+    public boolean isIndexOpened() {
+        return dao.isIndexOpened(INDEX);
+    }
+
+    @Benchmark
+    public IndexMetadata getIndexInfo() {
+        return dao.getIndexInfo(INDEX);
+    }
+
+    @Benchmark
+    public boolean isExistsIndex() {
+        return dao.isExistsIndex(INDEX);
+    }
+
+    @Benchmark
+    public boolean swapAlias() {
+        return dao.swapAlias(ALIAS, INDEX, INDEX);
+    }
+
+    private ElasticsearchTransportClient transportClient;
+
+    private AbstractEsDao dao;
+}
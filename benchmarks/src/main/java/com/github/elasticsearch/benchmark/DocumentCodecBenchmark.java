@@ -0,0 +1,52 @@
+package com.github.elasticsearch.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.elasticsearch.codec.EsDocumentCodec;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentCodecBenchmark {
+    @Setup
+    public void setUp() {
+        document = BenchmarkDocument.sample(1);
+        source = codec.toBytesReference(document);
+    }
+
+    @Benchmark
+    public BytesReference serialize() {
+        return codec.toBytesReference(document);
+    }
+
+    @Benchmark
+    public BytesReference serializeViaString() throws JsonProcessingException {
+        return new BytesArray(objectMapper.writeValueAsString(document));
+    }
+
+    @Benchmark
+    public BenchmarkDocument deserialize() {
+        return codec.fromBytesReference(source, BenchmarkDocument.class);
+    }
+
+    @Benchmark
+    public BenchmarkDocument deserializeViaString() throws JsonProcessingException {
+        return objectMapper.readValue(source.utf8ToString(), BenchmarkDocument.class);
+    }
+
+    private final EsDocumentCodec codec = EsDocumentCodec.getInstance();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BenchmarkDocument document;
+
+    private BytesReference source;
+}
@@ -0,0 +1,31 @@
+package com.github.elasticsearch.benchmark;
+
+import com.github.elasticsearch.client.ElasticsearchTransportClient;
+import com.github.elasticsearch.client.Node;
+import com.github.elasticsearch.client.Properties;
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.plugins.Plugin;
+
+import java.util.Collection;
+import java.util.Collections;
+
+public class StandInElasticsearchTransportClient extends ElasticsearchTransportClient {
+    public StandInElasticsearchTransportClient(Properties properties) {
+        super(properties);
+    }
+
+    public static Properties benchmarkProperties() {
+        Properties properties = new Properties(
+                Collections.singletonList(new Node("127.0.0.1", 9300)),
+                Collections.singletonMap("cluster.name", StandInTransportClient.CLUSTER_NAME));
+        properties.setNodeRefreshIntervalMillis(0L);
+
+        return properties;
+    }
+
+    @Override
+    protected TransportClient newTransportClient(Settings settings, Collection<Class<? extends Plugin>> plugins) {
+        return new StandInTransportClient(settings);
+    }
+}
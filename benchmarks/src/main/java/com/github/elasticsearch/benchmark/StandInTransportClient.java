@@ -0,0 +1,145 @@
+package com.github.elasticsearch.benchmark;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.ActionType;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.admin.cluster.health.ClusterHealthAction;
+import org.elasticsearch.action.admin.cluster.health.ClusterHealthResponse;
+import org.elasticsearch.action.admin.cluster.state.ClusterStateAction;
+import org.elasticsearch.action.admin.cluster.state.ClusterStateRequest;
+import org.elasticsearch.action.admin.cluster.state.ClusterStateResponse;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesAction;
+import org.elasticsearch.action.admin.indices.alias.get.GetAliasesAction;
+import org.elasticsearch.action.admin.indices.alias.get.GetAliasesResponse;
+import org.elasticsearch.action.admin.indices.create.CreateIndexAction;
+import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
+import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
+import org.elasticsearch.action.admin.indices.exists.indices.IndicesExistsAction;
+import org.elasticsearch.action.admin.indices.exists.indices.IndicesExistsResponse;
+import org.elasticsearch.action.bulk.BulkAction;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.support.master.AcknowledgedResponse;
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.AliasMetadata;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.cluster.routing.*;
+import org.elasticsearch.common.collect.ImmutableOpenMap;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.transport.TransportAddress;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.client.PreBuiltTransportClient;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 실제 cluster 없이 DAO 경로를 측정하기 위한 JVM 내부 transport client.
+ * 노드에 연결하지 않고 고정된 cluster state로 만든 응답을 즉시 돌려준다.
+ */
+public class StandInTransportClient extends PreBuiltTransportClient {
+    public static final String CLUSTER_NAME = "benchmark";
+
+    public static final String ALIAS = "benchmark";
+
+    public static final String INDEX = ALIAS + "_1";
+
+    public StandInTransportClient(Settings settings) {
+        super(settings);
+
+        IndexMetadata indexMetadata = IndexMetadata.builder(INDEX)
+                .settings(Settings.builder().put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT))
+                .numberOfShards(1)
+                .numberOfReplicas(0)
+                .putAlias(AliasMetadata.builder(ALIAS))
+                .build();
+
+        ShardId shardId = new ShardId(indexMetadata.getIndex(), 0);
+        ShardRouting primary = ShardRouting.newUnassigned(shardId, true, RecoverySource.EmptyStoreRecoverySource.INSTANCE,
+                        new UnassignedInfo(UnassignedInfo.Reason.INDEX_CREATED, null))
+                .initialize("stand-in", null, 0L)
+                .moveToStarted();
+
+        this.state = ClusterState.builder(new ClusterName(CLUSTER_NAME))
+                .metadata(Metadata.builder().put(indexMetadata, false).version(1L))
+                .routingTable(RoutingTable.builder()
+                        .add(IndexRoutingTable.builder(indexMetadata.getIndex())
+                                .addIndexShard(new IndexShardRoutingTable.Builder(shardId).addShard(primary).build()))
+                        .build())
+                .build();
+        this.aliases = ImmutableOpenMap.<String, List<AliasMetadata>>builder()
+                .fPut(INDEX, Collections.singletonList(indexMetadata.getAliases().get(ALIAS)))
+                .build();
+    }
+
+    @Override
+    public TransportClient addTransportAddress(TransportAddress transportAddress) {
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <Request extends ActionRequest, Response extends ActionResponse> void doExecute(ActionType<Response> action,
+                                                                                              Request request,
+                                                                                              ActionListener<Response> listener) {
+        ActionResponse response;
+
+        if (action == ClusterStateAction.INSTANCE) {
+            ClusterStateRequest stateRequest = (ClusterStateRequest) request;
+
+            if (stateRequest.waitForMetadataVersion() != null && stateRequest.waitForMetadataVersion() > state.metadata().version()) {
+                threadPool().schedule(
+                        () -> listener.onResponse((Response) new ClusterStateResponse(state.getClusterName(), state, true)),
+                        stateRequest.waitForTimeout(),
+                        ThreadPool.Names.GENERIC);
+                return;
+            }
+
+            response = new ClusterStateResponse(state.getClusterName(), state, false);
+        } else if (action == ClusterHealthAction.INSTANCE) {
+            response = new ClusterHealthResponse(CLUSTER_NAME, new String[]{INDEX}, state);
+        } else if (action == GetAliasesAction.INSTANCE) {
+            response = new GetAliasesResponse(aliases);
+        } else if (action == IndicesExistsAction.INSTANCE) {
+            response = new IndicesExistsResponse(true);
+        } else if (action == IndicesAliasesAction.INSTANCE) {
+            response = new AcknowledgedResponse(true);
+        } else if (action == CreateIndexAction.INSTANCE) {
+            response = new CreateIndexResponse(true, true, ((CreateIndexRequest) request).index());
+        } else if (action == BulkAction.INSTANCE) {
+            response = bulkResponse((BulkRequest) request);
+        } else {
+            listener.onFailure(new UnsupportedOperationException("지원하지 않는 action입니다. " + action.name()));
+            return;
+        }
+
+        listener.onResponse((Response) response);
+    }
+
+    private static BulkResponse bulkResponse(BulkRequest request) {
+        List<DocWriteRequest<?>> requests = request.requests();
+        BulkItemResponse[] items = new BulkItemResponse[requests.size()];
+
+        for (int i = 0; i < items.length; i++) {
+            DocWriteRequest<?> item = requests.get(i);
+            String id = item.id() == null ? String.valueOf(i) : item.id();
+            items[i] = new BulkItemResponse(i, item.opType(),
+                    new IndexResponse(new ShardId(item.index(), "_na_", 0), "_doc", id, i, 1L, 1L, true));
+        }
+
+        return new BulkResponse(items, 0L);
+    }
+
+    private final ClusterState state;
+
+    private final ImmutableOpenMap<String, List<AliasMetadata>> aliases;
+}
@@ -0,0 +1,245 @@
+package com.github.elasticsearch.bulk;
+
+import org.elasticsearch.common.CheckedConsumer;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * bulk 요청의 문서 _source를 담는 재사용 page pool.
+ * writer마다 {@link Arena}가 현재 page에 문서를 이어서 쓰고, 각 문서는 page를 복사하지 않는 {@link ReleasableBytesReference}로 요청에 실린다.
+ * writer의 sourceFunction이 stream에 바로 쓸 수 있는 {@link com.github.elasticsearch.codec.EsDocumentCodec}일 때만 사용하고,
+ * 다른 함수가 만든 byte는 page로 다시 복사하지 않고 그대로 요청에 싣는다.
+ * page는 그 page를 참조하는 문서의 bulk가 끝나 모두 해제되면 pool로 돌아간다. maxSizeInBytes를 넘으면 pool 밖의 page를 만들어 쓰고 버린다.
+ * page는 heap buffer이다. 이 client의 transport는 direct buffer 문서를 heap에 복사해 보내고 한 번만 읽을 수 있어, direct page는 쓰지 않는다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EsBulkBufferPool {
+    public EsBulkBufferPool(long maxSizeInBytes, int pageSizeInBytes) {
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.pageSizeInBytes = pageSizeInBytes;
+    }
+
+    public boolean isEnabled() {
+        return pageSizeInBytes > 0 && maxSizeInBytes >= pageSizeInBytes;
+    }
+
+    public long getMaxSizeInBytes() {
+        return maxSizeInBytes;
+    }
+
+    public int getPageSizeInBytes() {
+        return pageSizeInBytes;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    public long getInUseBytes() {
+        return (long) inUsePages.get() * pageSizeInBytes;
+    }
+
+    public int getFreePageCount() {
+        return freePages.size();
+    }
+
+    public long getAcquiredCount() {
+        return acquired.sum();
+    }
+
+    public long getUnpooledCount() {
+        return unpooled.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "EsBulkBufferPool{" +
+                "maxSizeInBytes=" + maxSizeInBytes +
+                ", pageSizeInBytes=" + pageSizeInBytes +
+                ", allocatedBytes=" + getAllocatedBytes() +
+                ", inUseBytes=" + getInUseBytes() +
+                ", acquired=" + getAcquiredCount() +
+                ", unpooled=" + getUnpooledCount() +
+                '}';
+    }
+
+    Arena newArena() {
+        return new Arena();
+    }
+
+    private Page acquire() {
+        acquired.increment();
+        inUsePages.incrementAndGet();
+
+        Page page = freePages.poll();
+
+        if (page != null) {
+            page.refs.set(1);
+            return page;
+        }
+
+        long allocated;
+
+        do {
+            allocated = allocatedBytes.get();
+
+            if (allocated + pageSizeInBytes > maxSizeInBytes) {
+                unpooled.increment();
+                return new Page(ByteBuffer.allocate(pageSizeInBytes), false);
+            }
+        } while (!allocatedBytes.compareAndSet(allocated, allocated + pageSizeInBytes));
+
+        return new Page(ByteBuffer.allocate(pageSizeInBytes), true);
+    }
+
+    private void release(Page page) {
+        if (page.refs.decrementAndGet() != 0) {
+            return;
+        }
+
+        inUsePages.decrementAndGet();
+
+        if (page.pooled) {
+            page.buffer.clear();
+            freePages.offer(page);
+        }
+    }
+
+    /**
+     * 한 writer가 문서를 순서대로 쓰는 page 묶음. 현재 page에 대한 참조를 하나 갖고 있다가 다음 page로 넘어갈 때 놓는다.
+     */
+    class Arena implements AutoCloseable {
+        private Arena() {
+        }
+
+        synchronized ReleasableBytesReference write(CheckedConsumer<OutputStream, IOException> source) throws IOException {
+            if (closed) {
+                throw new IllegalStateException("bulk buffer arena가 이미 닫혔습니다.");
+            }
+
+            if (current == null || !current.buffer.hasRemaining()) {
+                next();
+            }
+
+            touched.clear();
+            touch(current);
+            int start = current.buffer.position();
+
+            try {
+                source.accept(out);
+            } catch (IOException | RuntimeException e) {
+                touched.forEach(EsBulkBufferPool.this::release);
+                throw e;
+            }
+
+            List<Page> pages = new ArrayList<>(touched);
+            BytesReference[] slices = new BytesReference[pages.size()];
+
+            for (int i = 0; i < pages.size(); i++) {
+                ByteBuffer buffer = pages.get(i).buffer.duplicate();
+                buffer.limit(buffer.position()).position(i == 0 ? start : 0);
+                slices[i] = BytesReference.fromByteBuffer(buffer);
+            }
+
+            BytesReference bytes = slices.length == 1 ? slices[0] : CompositeBytesReference.of(slices);
+            return new ReleasableBytesReference(bytes, () -> pages.forEach(EsBulkBufferPool.this::release));
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+
+            if (current != null) {
+                release(current);
+                current = null;
+            }
+        }
+
+        private void next() {
+            if (current != null) {
+                release(current);
+            }
+
+            current = acquire();
+        }
+
+        private void touch(Page page) {
+            page.refs.incrementAndGet();
+            touched.add(page);
+        }
+
+        private void nextTouched() {
+            next();
+            touch(current);
+        }
+
+        private final OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                if (!current.buffer.hasRemaining()) {
+                    nextTouched();
+                }
+
+                current.buffer.put((byte) b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                while (len > 0) {
+                    if (!current.buffer.hasRemaining()) {
+                        nextTouched();
+                    }
+
+                    int chunk = Math.min(len, current.buffer.remaining());
+                    current.buffer.put(b, off, chunk);
+                    off += chunk;
+                    len -= chunk;
+                }
+            }
+        };
+
+        private final List<Page> touched = new ArrayList<>(2);
+
+        private Page current;
+
+        private boolean closed;
+    }
+
+    private static class Page {
+        private Page(ByteBuffer buffer, boolean pooled) {
+            this.buffer = buffer;
+            this.pooled = pooled;
+        }
+
+        private final ByteBuffer buffer;
+
+        private final boolean pooled;
+
+        private final AtomicInteger refs = new AtomicInteger(1);
+    }
+
+    private final long maxSizeInBytes;
+
+    private final int pageSizeInBytes;
+
+    private final ConcurrentLinkedQueue<Page> freePages = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    private final AtomicInteger inUsePages = new AtomicInteger();
+
+    private final LongAdder acquired = new LongAdder();
+
+    private final LongAdder unpooled = new LongAdder();
+}
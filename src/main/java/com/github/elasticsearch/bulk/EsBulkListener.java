@@ -0,0 +1,19 @@
+package com.github.elasticsearch.bulk;
+
+import org.elasticsearch.action.bulk.BulkItemResponse;
+
+public interface EsBulkListener {
+    EsBulkListener NONE = new EsBulkListener() {};
+
+    default void beforeBulk(long executionId, int numberOfActions) {}
+
+    default void afterBulk(long executionId, int numberOfActions, long tookInMillis) {}
+
+    default void onItemFailure(long executionId, BulkItemResponse.Failure failure) {}
+
+    default void onBulkFailure(long executionId, int numberOfActions, Throwable cause) {}
+
+    default void onRetry() {}
+
+    default void onSpooled(long executionId, int numberOfActions) {}
+}
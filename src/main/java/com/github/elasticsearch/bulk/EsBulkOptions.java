@@ -0,0 +1,146 @@
+package com.github.elasticsearch.bulk;
+
+@SuppressWarnings("WeakerAccess")
+public class EsBulkOptions {
+    private int bulkActions = 1_000;
+    private long bulkSizeInBytes = 5L * 1024 * 1024;
+    private long flushIntervalMillis = 1_000L;
+    private int concurrentRequests = 1;
+    private int maxRetries = 3;
+    private int maxConflictRetries = 3;
+    private long retryInitialDelayMillis = 100L;
+    private long closeTimeoutMillis = 60_000L;
+    private String spoolDirectory;
+    private long spoolSegmentSizeInBytes = 64L * 1024 * 1024;
+    private long spoolReplayIntervalMillis = 1_000L;
+
+    public EsBulkOptions() {
+    }
+
+    public int getBulkActions() {
+        return bulkActions;
+    }
+
+    public void setBulkActions(int bulkActions) {
+        this.bulkActions = bulkActions;
+    }
+
+    public long getBulkSizeInBytes() {
+        return bulkSizeInBytes;
+    }
+
+    public void setBulkSizeInBytes(long bulkSizeInBytes) {
+        this.bulkSizeInBytes = bulkSizeInBytes;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public int getConcurrentRequests() {
+        return concurrentRequests;
+    }
+
+    public void setConcurrentRequests(int concurrentRequests) {
+        this.concurrentRequests = concurrentRequests;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public int getMaxConflictRetries() {
+        return maxConflictRetries;
+    }
+
+    public void setMaxConflictRetries(int maxConflictRetries) {
+        this.maxConflictRetries = maxConflictRetries;
+    }
+
+    public long getRetryInitialDelayMillis() {
+        return retryInitialDelayMillis;
+    }
+
+    public void setRetryInitialDelayMillis(long retryInitialDelayMillis) {
+        this.retryInitialDelayMillis = retryInitialDelayMillis;
+    }
+
+    public long getCloseTimeoutMillis() {
+        return closeTimeoutMillis;
+    }
+
+    public void setCloseTimeoutMillis(long closeTimeoutMillis) {
+        this.closeTimeoutMillis = closeTimeoutMillis;
+    }
+
+    public String getSpoolDirectory() {
+        return spoolDirectory;
+    }
+
+    public void setSpoolDirectory(String spoolDirectory) {
+        this.spoolDirectory = spoolDirectory;
+    }
+
+    public long getSpoolSegmentSizeInBytes() {
+        return spoolSegmentSizeInBytes;
+    }
+
+    public void setSpoolSegmentSizeInBytes(long spoolSegmentSizeInBytes) {
+        this.spoolSegmentSizeInBytes = spoolSegmentSizeInBytes;
+    }
+
+    public long getSpoolReplayIntervalMillis() {
+        return spoolReplayIntervalMillis;
+    }
+
+    public void setSpoolReplayIntervalMillis(long spoolReplayIntervalMillis) {
+        this.spoolReplayIntervalMillis = spoolReplayIntervalMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "EsBulkOptions{" +
+                "bulkActions=" + bulkActions +
+                ", bulkSizeInBytes=" + bulkSizeInBytes +
+                ", flushIntervalMillis=" + flushIntervalMillis +
+                ", concurrentRequests=" + concurrentRequests +
+                ", maxRetries=" + maxRetries +
+                ", maxConflictRetries=" + maxConflictRetries +
+                ", retryInitialDelayMillis=" + retryInitialDelayMillis +
+                ", closeTimeoutMillis=" + closeTimeoutMillis +
+                ", spoolDirectory=" + spoolDirectory +
+                ", spoolSegmentSizeInBytes=" + spoolSegmentSizeInBytes +
+                ", spoolReplayIntervalMillis=" + spoolReplayIntervalMillis +
+                '}';
+    }
+
+    void validate() {
+        if (bulkActions <= 0 && bulkSizeInBytes <= 0 && flushIntervalMillis <= 0) {
+            throw new IllegalStateException("bulkActions, bulkSizeInBytes, flushIntervalMillis 중 하나 이상은 0보다 커야 합니다.");
+        }
+
+        if (concurrentRequests < 0) {
+            throw new IllegalStateException("concurrentRequests는 0 이상이어야 합니다.");
+        }
+
+        if (maxRetries < 0) {
+            throw new IllegalStateException("maxRetries는 0 이상이어야 합니다.");
+        }
+
+        if (maxConflictRetries < 0) {
+            throw new IllegalStateException("maxConflictRetries는 0 이상이어야 합니다.");
+        }
+
+        if (spoolDirectory != null && (spoolSegmentSizeInBytes <= 0 || spoolSegmentSizeInBytes > Integer.MAX_VALUE)) {
+            throw new IllegalStateException("spoolSegmentSizeInBytes는 0보다 크고 2GB보다 작아야 합니다.");
+        }
+    }
+}
@@ -0,0 +1,499 @@
+package com.github.elasticsearch.bulk;
+
+import com.github.elasticsearch.codec.EsDocumentCodec;
+import com.github.elasticsearch.model.AbstractEsDocument;
+import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.VersionType;
+import org.elasticsearch.index.seqno.SequenceNumbers;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
+import org.elasticsearch.threadpool.Scheduler;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 변경된 field만 보내는 partial update / upsert를 bulk로 묶어 보내는 writer.
+ * 문서에 seq_no가 있으면 if_seq_no/if_primary_term으로 낙관적 동시성 검사를 하고, 충돌한 항목만 최신 seq_no를 다시 읽어
+ * maxConflictRetries번까지 같은 field 변경을 재적용한다. 외부 versioning을 쓰는 index는 호출자가 쓰려던 version
+ * (version을 받는 overload의 값, 또는 update(previous, current)에서 올라간 current의 version)보다 저장된 version이 새로우면 재시도하지 않는다.
+ * 묶음은 lock 안에서 만들고, 전송은 lock 밖에서 묶음이 만들어진 순서대로 flush를 일으킨 호출 thread나
+ * flushIntervalMillis 주기의 GENERIC thread가 동기로 한다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EsBulkUpdater<T extends AbstractEsDocument> implements Closeable {
+    public EsBulkUpdater(Client client,
+                         String index,
+                         VersionType versionType,
+                         EsDocumentCodec documentCodec,
+                         EsBulkOptions options,
+                         EsBulkListener listener) {
+        assert client != null && documentCodec != null;
+
+        if (StringUtils.isEmpty(index)) {
+            throw new IllegalStateException("update 대상 index 이름이 없습니다.");
+        }
+
+        options.validate();
+
+        this.client = client;
+        this.index = index;
+        this.versionType = versionType;
+        this.documentCodec = documentCodec;
+        this.options = options;
+        this.listener = listener == null ? EsBulkListener.NONE : listener;
+        this.scheduled = options.getFlushIntervalMillis() > 0 ?
+                client.threadPool().scheduleWithFixedDelay(this::flushQuietly,
+                        TimeValue.timeValueMillis(options.getFlushIntervalMillis()), ThreadPool.Names.GENERIC) :
+                null;
+    }
+
+    public EsBulkUpdater<T> update(T document, Map<String, ?> fields) {
+        return add(document, fields, false, NO_VERSION);
+    }
+
+    public EsBulkUpdater<T> update(T document, Map<String, ?> fields, long version) {
+        return add(document, fields, false, version);
+    }
+
+    public EsBulkUpdater<T> update(T previous, T current) {
+        return add(current, changedFields(previous, current), false, intendedVersion(previous, current));
+    }
+
+    public EsBulkUpdater<T> upsert(T document, Map<String, ?> fields) {
+        return add(document, fields, true, NO_VERSION);
+    }
+
+    public EsBulkUpdater<T> upsert(T document, Map<String, ?> fields, long version) {
+        return add(document, fields, true, version);
+    }
+
+    public EsBulkUpdater<T> upsert(T previous, T current) {
+        return add(current, previous == null ? documentCodec.toSourceMap(current) : changedFields(previous, current), true,
+                intendedVersion(previous, current));
+    }
+
+    public Map<String, Object> changedFields(T previous, T current) {
+        Map<String, Object> previousSource = documentCodec.toSourceMap(previous);
+        Map<String, Object> currentSource = documentCodec.toSourceMap(current);
+        Map<String, Object> changed = new LinkedHashMap<>();
+
+        currentSource.forEach((field, value) -> {
+            if (!Objects.equals(previousSource.get(field), value)) {
+                changed.put(field, value);
+            }
+        });
+
+        previousSource.keySet().stream()
+                .filter(field -> !currentSource.containsKey(field))
+                .forEach(field -> changed.put(field, null));
+
+        return changed;
+    }
+
+    public void flush() {
+        synchronized (this) {
+            enqueuePending();
+        }
+
+        sendReady();
+    }
+
+    @Override
+    public void close() {
+        if (scheduled != null) {
+            scheduled.cancel();
+        }
+
+        flush();
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    public long getSucceededCount() {
+        return succeeded.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getUnchangedCount() {
+        return unchanged.sum();
+    }
+
+    public long getStaleCount() {
+        return stale.sum();
+    }
+
+    public long getConflictRetryCount() {
+        return conflictRetries.sum();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    private EsBulkUpdater<T> add(T document, Map<String, ?> fields, boolean upsert, long version) {
+        if (StringUtils.isEmpty(document.getId())) {
+            throw new IllegalArgumentException("update할 문서에 id가 없습니다.");
+        }
+
+        if (fields.isEmpty()) {
+            unchanged.increment();
+            return this;
+        }
+
+        Update update = new Update(document, new LinkedHashMap<>(fields), upsert, version);
+        submitted.increment();
+        boolean full;
+
+        synchronized (this) {
+            pending.add(update);
+            pendingRequest.add(update.toRequest());
+
+            full = (options.getBulkActions() > 0 && pending.size() >= options.getBulkActions()) ||
+                    (options.getBulkSizeInBytes() > 0 && pendingRequest.estimatedSizeInBytes() >= options.getBulkSizeInBytes());
+
+            if (full) {
+                enqueuePending();
+            }
+        }
+
+        if (full) {
+            sendReady();
+        }
+
+        return this;
+    }
+
+    private void enqueuePending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        ready.add(new Batch(pending, pendingRequest));
+        pending = new ArrayList<>();
+        pendingRequest = new BulkRequest();
+    }
+
+    private synchronized Batch nextReady() {
+        return ready.poll();
+    }
+
+    private void sendReady() {
+        synchronized (sendLock) {
+            Batch batch;
+
+            while ((batch = nextReady()) != null) {
+                send(batch.updates, batch.request);
+            }
+        }
+    }
+
+    private void send(List<Update> batch, BulkRequest request) {
+        Iterator<TimeValue> backoff = (options.getMaxRetries() > 0 ?
+                BackoffPolicy.exponentialBackoff(TimeValue.timeValueMillis(options.getRetryInitialDelayMillis()), options.getMaxRetries()) :
+                BackoffPolicy.noBackoff()).iterator();
+
+        while (!batch.isEmpty()) {
+            batch = execute(batch, request, backoff);
+            request = new BulkRequest();
+
+            for (Update update : batch) {
+                request.add(update.toRequest());
+            }
+        }
+    }
+
+    private List<Update> execute(List<Update> batch, BulkRequest request, Iterator<TimeValue> backoff) {
+        long executionId = executionIds.incrementAndGet();
+
+        try {
+            listener.beforeBulk(executionId, batch.size());
+        } catch (Exception e) {
+            logger.warn("EsBulkListener.beforeBulk 처리 중 오류가 발생했습니다.", e);
+        }
+
+        BulkResponse response;
+
+        try {
+            response = client.bulk(request).actionGet();
+        } catch (Exception e) {
+            failed.add(batch.size());
+            logger.error("bulk update 요청이 실패했습니다. index : {}, actions : {}", index, batch.size(), e);
+
+            try {
+                listener.onBulkFailure(executionId, batch.size(), e);
+            } catch (Exception listenerException) {
+                logger.warn("EsBulkListener.onBulkFailure 처리 중 오류가 발생했습니다.", listenerException);
+            }
+
+            return Collections.emptyList();
+        }
+
+        Map<Update, BulkItemResponse.Failure> conflicted = new LinkedHashMap<>();
+        List<Update> rejected = new ArrayList<>();
+
+        for (BulkItemResponse item : response.getItems()) {
+            Update update = batch.get(item.getItemId());
+
+            if (!item.isFailed()) {
+                succeeded.increment();
+            } else if (item.getFailure().getStatus() == RestStatus.CONFLICT && update.conflicts < options.getMaxConflictRetries()) {
+                conflicted.put(update, item.getFailure());
+            } else if (item.getFailure().getStatus() == RestStatus.TOO_MANY_REQUESTS && backoff.hasNext()) {
+                rejected.add(update);
+            } else {
+                onItemFailure(executionId, item.getFailure());
+            }
+        }
+
+        try {
+            listener.afterBulk(executionId, batch.size(), response.getTook().millis());
+        } catch (Exception e) {
+            logger.warn("EsBulkListener.afterBulk 처리 중 오류가 발생했습니다.", e);
+        }
+
+        List<Update> retrying = new ArrayList<>(reload(executionId, conflicted));
+
+        if (!rejected.isEmpty()) {
+            sleep(backoff.next());
+            onRetry();
+            retrying.addAll(rejected);
+        }
+
+        return retrying;
+    }
+
+    private List<Update> reload(long executionId, Map<Update, BulkItemResponse.Failure> conflicted) {
+        if (conflicted.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Update> retrying = new ArrayList<>();
+        List<Update> reloading = new ArrayList<>();
+        MultiGetRequest request = new MultiGetRequest().realtime(true);
+
+        conflicted.keySet().forEach(update -> {
+            if (update.seqNo == SequenceNumbers.UNASSIGNED_SEQ_NO) {
+                retrying.add(update);
+            } else {
+                reloading.add(update);
+                request.add(new MultiGetRequest.Item(index, update.document.getId())
+                        .routing(update.document.getParentId())
+                        .fetchSourceContext(FetchSourceContext.DO_NOT_FETCH_SOURCE));
+            }
+        });
+
+        if (!reloading.isEmpty()) {
+            MultiGetResponse response;
+
+            try {
+                response = client.multiGet(request).actionGet();
+            } catch (Exception e) {
+                logger.error("충돌한 문서의 seq_no를 다시 읽지 못했습니다. index : {}", index, e);
+                reloading.forEach(update -> onItemFailure(executionId, conflicted.get(update)));
+                return retrying;
+            }
+
+            MultiGetItemResponse[] items = response.getResponses();
+
+            for (int i = 0; i < items.length; i++) {
+                Update update = reloading.get(i);
+
+                if (items[i].isFailed() || !items[i].getResponse().isExists()) {
+                    onItemFailure(executionId, conflicted.get(update));
+                } else if (isStale(update, items[i].getResponse().getVersion())) {
+                    stale.increment();
+                    logger.debug("저장된 version이 더 새로워 update를 건너뜁니다. id : {}, version : {}, stored version : {}",
+                            update.document.getId(), update.version, items[i].getResponse().getVersion());
+                } else {
+                    update.seqNo = items[i].getResponse().getSeqNo();
+                    update.primaryTerm = items[i].getResponse().getPrimaryTerm();
+                    retrying.add(update);
+                }
+            }
+        }
+
+        retrying.forEach(update -> update.conflicts++);
+        conflictRetries.add(retrying.size());
+
+        return retrying;
+    }
+
+    private boolean isStale(Update update, long storedVersion) {
+        if (update.version < 0 || versionType == null) {
+            return false;
+        }
+
+        switch (versionType) {
+            case EXTERNAL:
+                return storedVersion >= update.version;
+            case EXTERNAL_GTE:
+                return storedVersion > update.version;
+            default:
+                return false;
+        }
+    }
+
+    private void onItemFailure(long executionId, BulkItemResponse.Failure failure) {
+        failed.increment();
+
+        try {
+            listener.onItemFailure(executionId, failure);
+        } catch (Exception e) {
+            logger.warn("EsBulkListener.onItemFailure 처리 중 오류가 발생했습니다.", e);
+        }
+    }
+
+    private void onRetry() {
+        retries.increment();
+
+        try {
+            listener.onRetry();
+        } catch (Exception e) {
+            logger.warn("EsBulkListener.onRetry 처리 중 오류가 발생했습니다.", e);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("주기적인 bulk update flush 중 오류가 발생했습니다. index : {}", index, e);
+        }
+    }
+
+    private long intendedVersion(T previous, T current) {
+        return previous != null && current.getVersion() > previous.getVersion() ? current.getVersion() : NO_VERSION;
+    }
+
+    private static void sleep(TimeValue delay) {
+        try {
+            Thread.sleep(delay.millis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class Update {
+        private Update(T document, Map<String, Object> fields, boolean upsert, long version) {
+            this.document = document;
+            this.fields = fields;
+            this.upsert = upsert;
+            this.version = version;
+            this.seqNo = upsert ? SequenceNumbers.UNASSIGNED_SEQ_NO : document.getSeqNo();
+            this.primaryTerm = document.getPrimaryTerm();
+        }
+
+        private UpdateRequest toRequest() {
+            UpdateRequest request = new UpdateRequest(index, document.getId()).doc(fields);
+
+            if (StringUtils.isNotEmpty(document.getParentId())) {
+                request.routing(document.getParentId());
+            }
+
+            if (upsert) {
+                request.upsert(documentCodec.toBytesReference(document), XContentType.JSON);
+            }
+
+            if (seqNo != SequenceNumbers.UNASSIGNED_SEQ_NO) {
+                request.setIfSeqNo(seqNo).setIfPrimaryTerm(primaryTerm);
+            } else {
+                request.retryOnConflict(options.getMaxConflictRetries());
+            }
+
+            return request;
+        }
+
+        private final T document;
+
+        private final Map<String, Object> fields;
+
+        private final boolean upsert;
+
+        private final long version;
+
+        private long seqNo;
+
+        private long primaryTerm;
+
+        private int conflicts;
+    }
+
+    private class Batch {
+        private Batch(List<Update> updates, BulkRequest request) {
+            this.updates = updates;
+            this.request = request;
+        }
+
+        private final List<Update> updates;
+
+        private final BulkRequest request;
+    }
+
+    private static final long NO_VERSION = -1L;
+
+    private final Client client;
+
+    private final String index;
+
+    private final VersionType versionType;
+
+    private final EsDocumentCodec documentCodec;
+
+    private final EsBulkOptions options;
+
+    private final EsBulkListener listener;
+
+    private final Scheduler.Cancellable scheduled;
+
+    private final AtomicLong executionIds = new AtomicLong();
+
+    private final Deque<Batch> ready = new ArrayDeque<>();
+
+    private final Object sendLock = new Object();
+
+    private List<Update> pending = new ArrayList<>();
+
+    private BulkRequest pendingRequest = new BulkRequest();
+
+    private final LongAdder submitted = new LongAdder();
+
+    private final LongAdder succeeded = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder unchanged = new LongAdder();
+
+    private final LongAdder stale = new LongAdder();
+
+    private final LongAdder conflictRetries = new LongAdder();
+
+    private final LongAdder retries = new LongAdder();
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+}
@@ -0,0 +1,369 @@
+package com.github.elasticsearch.bulk;
+
+import com.github.elasticsearch.codec.EsDocumentCodec;
+import com.github.elasticsearch.model.AbstractEsDocument;
+import com.github.elasticsearch.model.AbstractEsIndexParam;
+import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.VersionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@SuppressWarnings("WeakerAccess")
+public class EsBulkWriter<T extends AbstractEsDocument> implements Closeable {
+    public EsBulkWriter(Client client,
+                        AbstractEsIndexParam indexParam,
+                        Function<? super T, BytesReference> sourceFunction,
+                        EsBulkOptions options,
+                        EsBulkListener listener) {
+        this(client, indexParam.getIndexName(), indexParam.getVersionType().orElse(null), sourceFunction, options, listener);
+    }
+
+    public EsBulkWriter(Client client,
+                        String index,
+                        VersionType versionType,
+                        Function<? super T, BytesReference> sourceFunction,
+                        EsBulkOptions options,
+                        EsBulkListener listener) {
+        this(client, index, versionType, sourceFunction, options, listener, null);
+    }
+
+    public EsBulkWriter(Client client,
+                        String index,
+                        VersionType versionType,
+                        Function<? super T, BytesReference> sourceFunction,
+                        EsBulkOptions options,
+                        EsBulkListener listener,
+                        EsBulkBufferPool bufferPool) {
+        assert client != null && sourceFunction != null;
+
+        if (StringUtils.isEmpty(index)) {
+            throw new IllegalStateException("색인 대상 index 이름이 없습니다. setEsIndexParamInfo를 먼저 호출하세요.");
+        }
+
+        options.validate();
+
+        this.index = index;
+        this.versionType = versionType;
+        this.sourceFunction = sourceFunction;
+        this.options = options;
+        this.listener = listener == null ? EsBulkListener.NONE : listener;
+        this.client = client;
+        this.spool = options.getSpoolDirectory() == null ? null : new EsWriteSpool(client, options, this.listener);
+        this.processor = BulkProcessor.builder(this::send, new ProcessorListener())
+                .setBulkActions(options.getBulkActions() > 0 ? options.getBulkActions() : -1)
+                .setBulkSize(new ByteSizeValue(options.getBulkSizeInBytes() > 0 ? options.getBulkSizeInBytes() : -1))
+                .setFlushInterval(options.getFlushIntervalMillis() > 0 ? TimeValue.timeValueMillis(options.getFlushIntervalMillis()) : null)
+                .setConcurrentRequests(spool == null ? options.getConcurrentRequests() : Math.min(options.getConcurrentRequests(), 1))
+                .setBackoffPolicy(BackoffPolicy.wrap(backoffPolicy(options), this::onRetry))
+                .build();
+        this.arena = bufferPool == null || !bufferPool.isEnabled() || !(sourceFunction instanceof EsDocumentCodec) ? null : bufferPool.newArena();
+
+        if (spool != null) {
+            spool.start(client.threadPool());
+        }
+    }
+
+    public EsBulkWriter<T> add(T document) {
+        if (closed) {
+            throw new IllegalStateException("bulk writer가 이미 닫혔습니다. index : " + index);
+        }
+
+        IndexRequest request = toIndexRequest(document);
+
+        try {
+            processor.add(request);
+        } catch (RuntimeException e) {
+            release(Collections.singletonList(request));
+            throw e;
+        }
+
+        submitted.increment();
+        return this;
+    }
+
+    public EsBulkWriter<T> addAll(Stream<? extends T> documents) {
+        documents.forEach(this::add);
+        return this;
+    }
+
+    public void flush() {
+        processor.flush();
+    }
+
+    public boolean awaitClose(long timeout, TimeUnit unit) throws InterruptedException {
+        return processor.awaitClose(timeout, unit);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+
+        try {
+            if (!awaitClose(options.getCloseTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("bulk 요청이 {}ms 안에 완료되지 않았습니다. index : {}", options.getCloseTimeoutMillis(), index);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (arena != null) {
+                arena.close();
+            }
+
+            if (spool != null) {
+                if (spool.hasPending()) {
+                    logger.info("재전송하지 못한 요청이 spool에 남아 있습니다. 다음 실행 때 이어서 보냅니다. directory : {}", options.getSpoolDirectory());
+                }
+
+                spool.close();
+            }
+        }
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    public long getSucceededCount() {
+        return succeeded.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum() + (spool == null ? 0 : spool.getFailedCount());
+    }
+
+    public long getSpooledCount() {
+        return spool == null ? 0 : spool.getSpooledCount();
+    }
+
+    public long getReplayedCount() {
+        return spool == null ? 0 : spool.getReplayedCount();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    IndexRequest toIndexRequest(T document) {
+        IndexRequest request = new IndexRequest(index).source(arena == null ? sourceFunction.apply(document) : pooledSource(document), XContentType.JSON);
+
+        if (StringUtils.isNotEmpty(document.getId())) {
+            request.id(document.getId());
+        } else if (spool != null) {
+            request.id(UUIDs.base64UUID());
+        }
+
+        if (StringUtils.isNotEmpty(document.getParentId())) {
+            request.routing(document.getParentId());
+        }
+
+        if (versionType != null && versionType != VersionType.INTERNAL && document.getVersion() >= 0) {
+            request.version(document.getVersion()).versionType(versionType);
+        }
+
+        return request;
+    }
+
+    private BytesReference pooledSource(T document) {
+        try {
+            return arena.write(out -> ((EsDocumentCodec) sourceFunction).writeTo(document, out));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void send(BulkRequest request, ActionListener<BulkResponse> listener) {
+        if (spool != null && spool.hasPending()) {
+            listener.onFailure(new SpoolPendingException());
+            return;
+        }
+
+        client.bulk(request, listener);
+    }
+
+    private static void release(List<? extends DocWriteRequest<?>> requests) {
+        for (DocWriteRequest<?> request : requests) {
+            if (request instanceof IndexRequest && ((IndexRequest) request).source() instanceof ReleasableBytesReference) {
+                ((ReleasableBytesReference) ((IndexRequest) request).source()).close();
+            }
+        }
+    }
+
+    private static BackoffPolicy backoffPolicy(EsBulkOptions options) {
+        return options.getMaxRetries() > 0 ?
+                BackoffPolicy.exponentialBackoff(TimeValue.timeValueMillis(options.getRetryInitialDelayMillis()), options.getMaxRetries()) :
+                BackoffPolicy.noBackoff();
+    }
+
+    private void spool(long executionId, List<? extends DocWriteRequest<?>> requests) {
+        try {
+            spool.append(requests);
+        } catch (RuntimeException e) {
+            failed.add(requests.size());
+            logger.error("bulk 요청을 spool에 기록하지 못했습니다. index : {}, actions : {}", index, requests.size(), e);
+            return;
+        }
+
+        try {
+            listener.onSpooled(executionId, requests.size());
+        } catch (Exception e) {
+            logger.warn("EsBulkListener.onSpooled 처리 중 오류가 발생했습니다.", e);
+        }
+    }
+
+    private void onRetry() {
+        retries.increment();
+
+        try {
+            listener.onRetry();
+        } catch (Exception e) {
+            logger.warn("EsBulkListener.onRetry 처리 중 오류가 발생했습니다.", e);
+        }
+    }
+
+    private class ProcessorListener implements BulkProcessor.Listener {
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request) {
+            try {
+                listener.beforeBulk(executionId, request.numberOfActions());
+            } catch (Exception e) {
+                logger.warn("EsBulkListener.beforeBulk 처리 중 오류가 발생했습니다.", e);
+            }
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+            try {
+                onResponse(executionId, request, response);
+            } finally {
+                release(request.requests());
+            }
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+            try {
+                onFailure(executionId, request, failure);
+            } finally {
+                release(request.requests());
+            }
+        }
+
+        private void onResponse(long executionId, BulkRequest request, BulkResponse response) {
+            int failedItems = 0;
+            List<DocWriteRequest<?>> spooling = new ArrayList<>();
+
+            for (BulkItemResponse item : response.getItems()) {
+                if (item.isFailed() && spool != null && EsWriteSpool.isRetryable(item.getFailure().getStatus())) {
+                    spooling.add(request.requests().get(item.getItemId()));
+                } else if (item.isFailed()) {
+                    failedItems++;
+
+                    try {
+                        listener.onItemFailure(executionId, item.getFailure());
+                    } catch (Exception e) {
+                        logger.warn("EsBulkListener.onItemFailure 처리 중 오류가 발생했습니다.", e);
+                    }
+                }
+            }
+
+            if (!spooling.isEmpty()) {
+                spool(executionId, spooling);
+            }
+
+            failed.add(failedItems);
+            succeeded.add(response.getItems().length - failedItems - spooling.size());
+
+            try {
+                listener.afterBulk(executionId, request.numberOfActions(), response.getTook().millis());
+            } catch (Exception e) {
+                logger.warn("EsBulkListener.afterBulk 처리 중 오류가 발생했습니다.", e);
+            }
+        }
+
+        private void onFailure(long executionId, BulkRequest request, Throwable failure) {
+            if (spool != null && (failure instanceof SpoolPendingException || EsWriteSpool.isRetryable(failure))) {
+                if (!(failure instanceof SpoolPendingException)) {
+                    logger.warn("bulk 요청이 실패해 spool에 기록합니다. index : {}, actions : {}", index, request.numberOfActions(), failure);
+                }
+
+                spool(executionId, request.requests());
+                return;
+            }
+
+            failed.add(request.numberOfActions());
+            logger.error("bulk 요청이 실패했습니다. index : {}, actions : {}", index, request.numberOfActions(), failure);
+
+            try {
+                listener.onBulkFailure(executionId, request.numberOfActions(), failure);
+            } catch (Exception e) {
+                logger.warn("EsBulkListener.onBulkFailure 처리 중 오류가 발생했습니다.", e);
+            }
+        }
+    }
+
+    private static class SpoolPendingException extends RuntimeException {
+        private SpoolPendingException() {
+            super("spool에 재전송할 요청이 남아 있어 bulk를 spool 뒤에 기록합니다.", null, false, false);
+        }
+    }
+
+    private final Client client;
+
+    private final String index;
+
+    private final VersionType versionType;
+
+    private final Function<? super T, BytesReference> sourceFunction;
+
+    private final EsBulkOptions options;
+
+    private final EsBulkListener listener;
+
+    private final BulkProcessor processor;
+
+    private final EsWriteSpool spool;
+
+    private final EsBulkBufferPool.Arena arena;
+
+    private final LongAdder submitted = new LongAdder();
+
+    private final LongAdder succeeded = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder retries = new LongAdder();
+
+    private volatile boolean closed;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+}
@@ -0,0 +1,600 @@
+package com.github.elasticsearch.bulk;
+
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.Version;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.admin.cluster.health.ClusterHealthRequest;
+import org.elasticsearch.action.admin.cluster.health.ClusterHealthResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.transport.NoNodeAvailableException;
+import org.elasticsearch.cluster.block.ClusterBlockException;
+import org.elasticsearch.cluster.health.ClusterHealthStatus;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.threadpool.Scheduler;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.ConnectTransportException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * cluster가 쓰기를 받지 못하는 동안 bulk 요청을 디스크에 쌓아 두는 spool.
+ * 요청은 append-only memory-mapped segment 파일에 [length][crc32][request] 형식으로 기록해 heap에 남기지 않고,
+ * cluster health가 RED가 아니게 되면 background에서 기록된 순서대로 bulk 단위로 다시 보낸다.
+ * bulk가 끝날 때마다 checkpoint를 원자적으로 갱신하고 다 보낸 segment는 지우므로 재시작해도 남은 요청부터 이어서 보낸다.
+ * spool을 쓰는 writer는 bulk를 한 번에 하나만 보내고, spool에 재전송할 요청이 남아 있는 동안 만든 bulk는 보내지 않고 spool 뒤에 이어서 기록하므로
+ * 먼저 실패한 요청이 나중에 쓴 문서를 덮어쓰지 않는다.
+ * 재전송은 id가 있는 요청만 기록하므로 checkpoint 전에 중단되어 같은 요청을 다시 보내도 문서가 중복되지 않는다.
+ * 연결할 node가 없거나 cluster block, 429/503처럼 일시적인 실패만 spool에 기록하고, 재전송한 bulk 전체가 그 밖의 이유로 실패하면
+ * 다시 보내도 성공할 수 없으므로 실패로 집계하고 건너뛴다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EsWriteSpool implements Closeable {
+    public EsWriteSpool(Client client, EsBulkOptions options, EsBulkListener listener) {
+        assert client != null && options.getSpoolDirectory() != null;
+
+        this.client = client;
+        this.options = options;
+        this.listener = listener == null ? EsBulkListener.NONE : listener;
+        this.directory = Paths.get(options.getSpoolDirectory());
+
+        try {
+            Files.createDirectories(directory);
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("spool 디렉터리를 열지 못했습니다. directory : " + directory, e);
+        }
+    }
+
+    public void start(ThreadPool threadPool) {
+        if (options.getSpoolReplayIntervalMillis() <= 0) {
+            return;
+        }
+
+        synchronized (this) {
+            if (closed || scheduled != null) {
+                return;
+            }
+
+            scheduled = threadPool.scheduleWithFixedDelay(this::replayQuietly,
+                    TimeValue.timeValueMillis(options.getSpoolReplayIntervalMillis()), ThreadPool.Names.GENERIC);
+        }
+    }
+
+    public void append(Collection<? extends DocWriteRequest<?>> requests) {
+        synchronized (appendLock) {
+            if (closed) {
+                throw new IllegalStateException("spool이 이미 닫혔습니다. directory : " + directory);
+            }
+
+            appendRecords(requests);
+        }
+
+        spooled.add(requests.size());
+    }
+
+    public boolean hasPending() {
+        Segment segment = writeSegment;
+        Position position = checkpoint;
+
+        return segment != null && (position.segmentId < segment.id || position.offset < segment.writePosition);
+    }
+
+    public boolean replay() {
+        synchronized (replayLock) {
+            return replayPending();
+        }
+    }
+
+    public long getSpooledCount() {
+        return spooled.sum();
+    }
+
+    public long getReplayedCount() {
+        return replayed.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (scheduled != null) {
+                scheduled.cancel();
+                scheduled = null;
+            }
+        }
+
+        synchronized (replayLock) {
+            synchronized (appendLock) {
+                closed = true;
+                segments.values().forEach(Segment::close);
+                segments.clear();
+                writeSegment = null;
+            }
+        }
+    }
+
+    static boolean isRetryable(RestStatus status) {
+        return status == RestStatus.TOO_MANY_REQUESTS || status == RestStatus.SERVICE_UNAVAILABLE;
+    }
+
+    static boolean isRetryable(Throwable failure) {
+        Throwable cause = failure instanceof Exception ? ExceptionsHelper.unwrapCause((Exception) failure) : failure;
+
+        return cause instanceof NoNodeAvailableException
+                || cause instanceof ClusterBlockException
+                || cause instanceof EsRejectedExecutionException
+                || cause instanceof ConnectTransportException
+                || cause instanceof Exception && isRetryable(ExceptionsHelper.status((Exception) cause));
+    }
+
+    private boolean replayPending() {
+        while (!closed && hasPending()) {
+            if (!isClusterAvailable()) {
+                return false;
+            }
+
+            Batch batch = readBatch();
+
+            if (batch.requests.isEmpty()) {
+                if (batch.end.equals(checkpoint)) {
+                    break;
+                }
+
+                commit(batch.end);
+                continue;
+            }
+
+            BulkRequest request = new BulkRequest();
+            batch.requests.forEach(request::add);
+
+            BulkResponse response;
+
+            try {
+                response = client.bulk(request).actionGet();
+            } catch (Exception e) {
+                if (isRetryable(e)) {
+                    logger.warn("spool 재전송이 실패했습니다. 다음 주기에 다시 보냅니다. actions : {}", batch.requests.size(), e);
+                    return false;
+                }
+
+                skip(batch, e);
+                continue;
+            }
+
+            try {
+                listener.afterBulk(-1L, request.numberOfActions(), response.getTook().millis());
+            } catch (Exception e) {
+                logger.warn("EsBulkListener.afterBulk 처리 중 오류가 발생했습니다.", e);
+            }
+
+            for (BulkItemResponse item : response.getItems()) {
+                if (item.isFailed() && isRetryable(item.getFailure().getStatus())) {
+                    logger.warn("spool 재전송이 거절되었습니다. 다음 주기에 다시 보냅니다. status : {}", item.getFailure().getStatus());
+                    return false;
+                }
+            }
+
+            for (BulkItemResponse item : response.getItems()) {
+                if (!item.isFailed() || item.getFailure().getStatus() == RestStatus.CONFLICT) {
+                    replayed.increment();
+                    continue;
+                }
+
+                failed.increment();
+
+                try {
+                    listener.onItemFailure(-1L, item.getFailure());
+                } catch (Exception e) {
+                    logger.warn("EsBulkListener.onItemFailure 처리 중 오류가 발생했습니다.", e);
+                }
+            }
+
+            commit(batch.end);
+        }
+
+        return !hasPending();
+    }
+
+    private void skip(Batch batch, Exception cause) {
+        logger.error("다시 보내도 성공할 수 없는 spool 요청을 건너뜁니다. actions : {}, checkpoint : {}", batch.requests.size(), checkpoint, cause);
+        failed.add(batch.requests.size());
+
+        try {
+            listener.onBulkFailure(-1L, batch.requests.size(), cause);
+        } catch (Exception e) {
+            logger.warn("EsBulkListener.onBulkFailure 처리 중 오류가 발생했습니다.", e);
+        }
+
+        commit(batch.end);
+    }
+
+    private void appendRecords(Collection<? extends DocWriteRequest<?>> requests) {
+        try {
+            for (DocWriteRequest<?> request : requests) {
+                if (request.id() == null) {
+                    throw new IllegalArgumentException("id가 없는 요청은 spool에 기록할 수 없습니다. index : " + request.index());
+                }
+
+                BytesStreamOutput out = new BytesStreamOutput();
+                DocWriteRequest.writeDocumentRequest(out, request);
+                byte[] bytes = BytesReference.toBytes(out.bytes());
+
+                if (writeSegment == null || !writeSegment.append(bytes)) {
+                    rollover(bytes.length);
+                    writeSegment.append(bytes);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("spool에 요청을 기록하지 못했습니다. directory : " + directory, e);
+        }
+    }
+
+    private void open() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .forEach(path -> {
+                        long id = Long.parseLong(path.getFileName().toString().substring(SEGMENT_PREFIX.length(), path.getFileName().toString().length() - SEGMENT_SUFFIX.length()));
+                        segments.put(id, Segment.open(path, id));
+                    });
+        }
+
+        Path checkpointPath = directory.resolve(CHECKPOINT_FILE);
+
+        if (Files.exists(checkpointPath)) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(checkpointPath));
+            checkpoint = new Position(buffer.getLong(), buffer.getInt());
+        } else if (!segments.isEmpty()) {
+            checkpoint = new Position(segments.firstKey(), Segment.HEADER_SIZE);
+        }
+
+        if (!segments.isEmpty()) {
+            writeSegment = segments.lastEntry().getValue();
+            logger.info("spool에 재전송할 요청이 남아 있습니다. directory : {}, segments : {}, checkpoint : {}", directory, segments.size(), checkpoint);
+        }
+    }
+
+    private void rollover(int recordSize) throws IOException {
+        if (writeSegment != null) {
+            writeSegment.buffer.force();
+        }
+
+        long id = writeSegment == null ? Math.max(checkpoint.segmentId, 0L) : writeSegment.id + 1;
+        long size = Math.max(options.getSpoolSegmentSizeInBytes(), Segment.HEADER_SIZE + Segment.RECORD_HEADER_SIZE + recordSize);
+        writeSegment = Segment.create(directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX)), id, size);
+        segments.put(id, writeSegment);
+    }
+
+    private Batch readBatch() {
+        List<DocWriteRequest<?>> requests = new ArrayList<>();
+        long bytes = 0;
+        Position position = checkpoint;
+        Segment segment = segments.get(position.segmentId);
+        int offset = position.offset;
+
+        while (segment != null && requests.size() < maxReplayActions() && bytes < maxReplayBytes()) {
+            byte[] record = segment.read(offset);
+
+            if (record == null) {
+                Map.Entry<Long, Segment> next = segments.higherEntry(segment.id);
+
+                if (next == null) {
+                    break;
+                }
+
+                segment = next.getValue();
+                offset = Segment.HEADER_SIZE;
+                continue;
+            }
+
+            try {
+                StreamInput in = StreamInput.wrap(record);
+                in.setVersion(segment.version);
+                requests.add(DocWriteRequest.readDocumentRequest(null, in));
+            } catch (IOException e) {
+                throw new UncheckedIOException("spool 요청을 읽지 못했습니다. segment : " + segment.path, e);
+            }
+
+            bytes += record.length;
+            offset += Segment.RECORD_HEADER_SIZE + record.length;
+        }
+
+        return new Batch(requests, new Position(segment == null ? position.segmentId : segment.id, offset));
+    }
+
+    private void commit(Position position) {
+        Path checkpointPath = directory.resolve(CHECKPOINT_FILE);
+        Path tempPath = directory.resolve(CHECKPOINT_FILE + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES).putLong(position.segmentId).putInt(position.offset);
+            buffer.flip();
+            channel.write(buffer);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("spool checkpoint를 기록하지 못했습니다. directory : " + directory, e);
+        }
+
+        try {
+            Files.move(tempPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("spool checkpoint를 기록하지 못했습니다. directory : " + directory, e);
+        }
+
+        checkpoint = position;
+
+        Iterator<Segment> consumed = segments.headMap(position.segmentId).values().iterator();
+
+        while (consumed.hasNext()) {
+            Segment segment = consumed.next();
+            segment.close();
+            consumed.remove();
+
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                logger.warn("재전송이 끝난 spool segment를 지우지 못했습니다. segment : {}", segment.path, e);
+            }
+        }
+    }
+
+    private boolean isClusterAvailable() {
+        try {
+            ClusterHealthResponse response = client.admin().cluster().health(new ClusterHealthRequest()).actionGet(HEALTH_TIMEOUT);
+            return response.getStatus() != ClusterHealthStatus.RED;
+        } catch (Exception e) {
+            logger.debug("cluster health를 확인하지 못해 spool 재전송을 미룹니다.", e);
+            return false;
+        }
+    }
+
+    private void replayQuietly() {
+        try {
+            synchronized (appendLock) {
+                if (writeSegment != null) {
+                    writeSegment.buffer.force();
+                }
+            }
+
+            replay();
+        } catch (RuntimeException e) {
+            logger.warn("spool 재전송 중 오류가 발생했습니다. directory : {}", directory, e);
+        }
+    }
+
+    private int maxReplayActions() {
+        return options.getBulkActions() > 0 ? options.getBulkActions() : Integer.MAX_VALUE;
+    }
+
+    private long maxReplayBytes() {
+        return options.getBulkSizeInBytes() > 0 ? options.getBulkSizeInBytes() : Long.MAX_VALUE;
+    }
+
+    private static class Segment implements Closeable {
+        private Segment(Path path, long id, FileChannel channel, MappedByteBuffer buffer, Version version) {
+            this.path = path;
+            this.id = id;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.version = version;
+        }
+
+        private static Segment create(Path path, long id, long size) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC).putInt(Integer.BYTES, Version.CURRENT.id);
+
+            Segment segment = new Segment(path, id, channel, buffer, Version.CURRENT);
+            segment.writePosition = HEADER_SIZE;
+            return segment;
+        }
+
+        private static Segment open(Path path, long id) {
+            try {
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+
+                if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                    channel.close();
+                    throw new IllegalStateException("spool segment 형식이 올바르지 않습니다. segment : " + path);
+                }
+
+                Segment segment = new Segment(path, id, channel, buffer, Version.fromId(buffer.getInt(Integer.BYTES)));
+                int position = HEADER_SIZE;
+                byte[] record;
+
+                while ((record = segment.read(position, buffer.capacity())) != null) {
+                    position += RECORD_HEADER_SIZE + record.length;
+                }
+
+                segment.writePosition = position;
+                return segment;
+            } catch (IOException e) {
+                throw new UncheckedIOException("spool segment를 열지 못했습니다. segment : " + path, e);
+            }
+        }
+
+        private boolean append(byte[] bytes) {
+            int position = writePosition;
+
+            if ((long) position + RECORD_HEADER_SIZE + bytes.length > buffer.capacity()) {
+                return false;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length);
+
+            ByteBuffer target = buffer.duplicate();
+            target.position(position + RECORD_HEADER_SIZE);
+            target.put(bytes);
+            buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+            buffer.putInt(position, bytes.length);
+
+            writePosition = position + RECORD_HEADER_SIZE + bytes.length;
+            return true;
+        }
+
+        private byte[] read(int position) {
+            return read(position, writePosition);
+        }
+
+        private byte[] read(int position, int limit) {
+            if ((long) position + RECORD_HEADER_SIZE > limit) {
+                return null;
+            }
+
+            int length = buffer.getInt(position);
+
+            if (length <= 0 || (long) position + RECORD_HEADER_SIZE + length > limit) {
+                return null;
+            }
+
+            byte[] bytes = new byte[length];
+            ByteBuffer source = buffer.duplicate();
+            source.position(position + RECORD_HEADER_SIZE);
+            source.get(bytes);
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, length);
+
+            return (int) crc.getValue() == buffer.getInt(position + Integer.BYTES) ? bytes : null;
+        }
+
+        @Override
+        public void close() {
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static final int MAGIC = 0x45535350;
+
+        private static final int HEADER_SIZE = Integer.BYTES * 2;
+
+        private static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+
+        private final Path path;
+
+        private final long id;
+
+        private final FileChannel channel;
+
+        private final MappedByteBuffer buffer;
+
+        private final Version version;
+
+        private volatile int writePosition;
+    }
+
+    private static class Position {
+        private Position(long segmentId, int offset) {
+            this.segmentId = segmentId;
+            this.offset = offset;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Position)) {
+                return false;
+            }
+
+            Position position = (Position) o;
+            return segmentId == position.segmentId && offset == position.offset;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(segmentId, offset);
+        }
+
+        @Override
+        public String toString() {
+            return segmentId + ":" + offset;
+        }
+
+        private final long segmentId;
+
+        private final int offset;
+    }
+
+    private static class Batch {
+        private Batch(List<DocWriteRequest<?>> requests, Position end) {
+            this.requests = requests;
+            this.end = end;
+        }
+
+        private final List<DocWriteRequest<?>> requests;
+
+        private final Position end;
+    }
+
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private static final String SEGMENT_SUFFIX = ".spool";
+
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private static final TimeValue HEALTH_TIMEOUT = TimeValue.timeValueSeconds(5);
+
+    private final Client client;
+
+    private final EsBulkOptions options;
+
+    private final EsBulkListener listener;
+
+    private final Path directory;
+
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private final Object appendLock = new Object();
+
+    private final Object replayLock = new Object();
+
+    private volatile Segment writeSegment;
+
+    private volatile Position checkpoint = new Position(0L, Segment.HEADER_SIZE);
+
+    private final LongAdder spooled = new LongAdder();
+
+    private final LongAdder replayed = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private Scheduler.Cancellable scheduled;
+
+    private volatile boolean closed;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+}
@@ -0,0 +1,232 @@
+package com.github.elasticsearch.client;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.indices.alias.get.GetAliasesResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.cluster.metadata.AliasMetadata;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.common.collect.ImmutableOpenMap;
+import org.elasticsearch.common.regex.Regex;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * alias → (index → aliases) 조회 결과 캐시.
+ * TTL과 최대 크기로 제한되며, 최대 크기를 넘으면 가장 오래 조회되지 않은 항목부터 버린다.
+ * 캐시된 alias는 {@link ClusterMetadataCache}의 변경 감시에 포함되며, alias를 변경하는 DAO 작업 시 즉시 무효화된다. {@link #load(String...)}는 캐시를 거치지 않고 조회해 결과로 캐시를 갱신한다.
+ * cluster metadata가 바뀌면 캐시된 alias의 index → alias 구성을 새 metadata와 비교해 실제로 달라진 항목만 무효화한다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class AliasCache {
+    public AliasCache(Supplier<? extends Client> clientSupplier, ClusterMetadataCache metadataCache, long ttlMillis, int maxSize) {
+        this.clientSupplier = clientSupplier;
+        this.metadataCache = metadataCache;
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+
+        metadataCache.addMetadataListener(new AliasWatcher());
+    }
+
+    public Map<String, List<String>> get(String... aliases) {
+        String key = key(aliases);
+        Map<String, List<String>> cached = lookup(key);
+
+        return cached != null ? cached : load(aliases);
+    }
+
+    public Map<String, List<String>> load(String... aliases) {
+        long loadEpoch = epoch.get();
+        return put(key(aliases), loadEpoch, toIndexAliasesPairMap(clientSupplier.get().admin().indices().prepareGetAliases(aliases).get()));
+    }
+
+    public void get(String[] aliases, ActionListener<Map<String, List<String>>> listener) {
+        String key = key(aliases);
+        Map<String, List<String>> cached = lookup(key);
+
+        if (cached != null) {
+            listener.onResponse(cached);
+            return;
+        }
+
+        long loadEpoch = epoch.get();
+        clientSupplier.get().admin().indices().prepareGetAliases(aliases).execute(ActionListener.wrap(
+                response -> listener.onResponse(put(key, loadEpoch, toIndexAliasesPairMap(response))),
+                listener::onFailure));
+    }
+
+    public void invalidate(String... aliases) {
+        epoch.incrementAndGet();
+        Set<String> invalidated = new HashSet<>(Arrays.asList(aliases));
+
+        entries.entrySet().removeIf(entry -> entry.getValue().aliases.stream()
+                .anyMatch(alias -> invalidated.contains(alias) || Regex.isSimpleMatchPattern(alias)));
+    }
+
+    public void invalidateIndices(String... indices) {
+        epoch.incrementAndGet();
+        Set<String> invalidated = new HashSet<>(Arrays.asList(indices));
+
+        entries.entrySet().removeIf(entry -> entry.getValue().indexAliasesPairMap.keySet().stream().anyMatch(invalidated::contains)
+                || entry.getValue().aliases.stream().anyMatch(alias -> invalidated.contains(alias) || Regex.isSimpleMatchPattern(alias)));
+    }
+
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0 && maxSize > 0;
+    }
+
+    private Map<String, List<String>> lookup(String key) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+
+        return entry.indexAliasesPairMap;
+    }
+
+    private Map<String, List<String>> put(String key, long loadEpoch, Map<String, List<String>> indexAliasesPairMap) {
+        if (!isEnabled()) {
+            return indexAliasesPairMap;
+        }
+
+        Entry entry = new Entry(Arrays.asList(key.split(",")), indexAliasesPairMap, System.currentTimeMillis() + ttlMillis);
+        entries.put(key, entry);
+
+        if (epoch.get() != loadEpoch) {
+            entries.remove(key, entry);
+        } else {
+            metadataCache.startWatching();
+        }
+
+        return indexAliasesPairMap;
+    }
+
+    private static Map<String, Set<String>> resolve(Metadata metadata, List<String> aliases) {
+        Map<String, Set<String>> resolved = new HashMap<>();
+
+        for (IndexMetadata indexMetadata : metadata) {
+            Set<String> matched = new HashSet<>();
+
+            indexMetadata.getAliases().keysIt().forEachRemaining(name -> {
+                if (aliases.stream().anyMatch(alias -> alias.equals(name) || Regex.simpleMatch(alias, name))) {
+                    matched.add(name);
+                }
+            });
+
+            if (!matched.isEmpty()) {
+                resolved.put(indexMetadata.getIndex().getName(), matched);
+            }
+        }
+
+        return resolved;
+    }
+
+    private static Map<String, Set<String>> toAliasSets(Map<String, List<String>> indexAliasesPairMap) {
+        Map<String, Set<String>> aliasSets = new HashMap<>();
+
+        indexAliasesPairMap.forEach((index, aliases) -> {
+            if (!aliases.isEmpty()) {
+                aliasSets.put(index, new HashSet<>(aliases));
+            }
+        });
+
+        return aliasSets;
+    }
+
+    private static String key(String[] aliases) {
+        return aliases.length == 1 ? aliases[0] : String.join(",", new TreeSet<>(Arrays.asList(aliases)));
+    }
+
+    private static Map<String, List<String>> toIndexAliasesPairMap(GetAliasesResponse response) {
+        ImmutableOpenMap<String, List<AliasMetadata>> aliasesMetaDataMap = response.getAliases();
+
+        Map<String, List<String>> indexAliasesPairMap = new HashMap<>();
+
+        if (aliasesMetaDataMap != null && !aliasesMetaDataMap.isEmpty()) {
+            aliasesMetaDataMap.forEach(objectCursor ->
+                    indexAliasesPairMap.put(
+                            objectCursor.key,
+                            Collections.unmodifiableList(objectCursor.value.stream().map(AliasMetadata::getAlias).collect(toList()))));
+        }
+
+        return Collections.unmodifiableMap(indexAliasesPairMap);
+    }
+
+    private class AliasWatcher implements ClusterMetadataCache.MetadataListener {
+        @Override
+        public Collection<String> watchedNames() {
+            Set<String> names = new HashSet<>();
+
+            synchronized (entries) {
+                for (Entry entry : entries.values()) {
+                    names.addAll(entry.aliases);
+                    names.addAll(entry.indexAliasesPairMap.keySet());
+                }
+            }
+
+            return names;
+        }
+
+        @Override
+        public void metadataChanged(Metadata metadata) {
+            epoch.incrementAndGet();
+
+            entries.entrySet().removeIf(entry ->
+                    !resolve(metadata, entry.getValue().aliases).equals(toAliasSets(entry.getValue().indexAliasesPairMap)));
+        }
+    }
+
+    private static class Entry {
+        private Entry(List<String> aliases, Map<String, List<String>> indexAliasesPairMap, long expiresAt) {
+            this.aliases = aliases;
+            this.indexAliasesPairMap = indexAliasesPairMap;
+            this.expiresAt = expiresAt;
+        }
+
+        private final List<String> aliases;
+
+        private final Map<String, List<String>> indexAliasesPairMap;
+
+        private final long expiresAt;
+    }
+
+    private final Supplier<? extends Client> clientSupplier;
+
+    private final ClusterMetadataCache metadataCache;
+
+    private final long ttlMillis;
+
+    private final int maxSize;
+
+    private final Map<String, Entry> entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxSize;
+        }
+    });
+
+    private final AtomicLong epoch = new AtomicLong();
+}
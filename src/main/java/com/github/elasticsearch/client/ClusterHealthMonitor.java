@@ -0,0 +1,238 @@
+package com.github.elasticsearch.client;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.cluster.health.ClusterHealthRequest;
+import org.elasticsearch.action.admin.cluster.health.ClusterHealthResponse;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.cluster.health.ClusterHealthStatus;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.threadpool.Scheduler;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * cluster 및 index health 상태 캐시.
+ * 조회된 index의 health는 주기적으로 한 번의 요청으로 갱신하고, 캐시된 상태가 기준을 이미 만족하면 요청 없이 바로 반환한다.
+ * 기준을 만족하지 않으면 wait_for_status 요청을 보내되 같은 조건을 기다리는 호출은 진행 중인 요청 하나를 공유한다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ClusterHealthMonitor implements Closeable {
+    public ClusterHealthMonitor(Supplier<? extends Client> clientSupplier, long refreshIntervalMillis) {
+        this.clientSupplier = clientSupplier;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.staleAfterNanos = TimeUnit.MILLISECONDS.toNanos(refreshIntervalMillis * 2);
+    }
+
+    public boolean awaitStatus(ClusterHealthStatus highWaterMarkStatus, TimeValue timeout, String... indices) {
+        try {
+            return awaitStatusAsync(highWaterMarkStatus, timeout, indices).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    public void awaitStatus(ClusterHealthStatus highWaterMarkStatus, TimeValue timeout, String[] indices, ActionListener<Boolean> listener) {
+        awaitStatusAsync(highWaterMarkStatus, timeout, indices).whenComplete((result, e) -> {
+            if (e != null) {
+                listener.onFailure(e instanceof CompletionException && e.getCause() instanceof Exception ? (Exception) e.getCause() : new RuntimeException(e));
+            } else {
+                listener.onResponse(result);
+            }
+        });
+    }
+
+    public void start(ThreadPool threadPool) {
+        synchronized (this) {
+            closed = false;
+
+            if (refreshIntervalMillis <= 0 || scheduled != null) {
+                return;
+            }
+
+            scheduled = threadPool.scheduleWithFixedDelay(this::refresh, TimeValue.timeValueMillis(refreshIntervalMillis), ThreadPool.Names.GENERIC);
+        }
+    }
+
+    public void invalidate(String... indices) {
+        for (String index : indices) {
+            statuses.remove(index);
+        }
+
+        clusterStatus = null;
+    }
+
+    public long getSharedRequestCount() {
+        return sharedRequests.sum();
+    }
+
+    public long getCachedHitCount() {
+        return cachedHits.sum();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+
+            if (scheduled != null) {
+                scheduled.cancel();
+                scheduled = null;
+            }
+        }
+
+        statuses.clear();
+        clusterStatus = null;
+    }
+
+    private CompletableFuture<Boolean> awaitStatusAsync(ClusterHealthStatus highWaterMarkStatus, TimeValue timeout, String... indices) {
+        if (meets(highWaterMarkStatus, indices)) {
+            cachedHits.increment();
+            return CompletableFuture.completedFuture(true);
+        }
+
+        String[] sortedIndices = indices.clone();
+        Arrays.sort(sortedIndices);
+        String key = highWaterMarkStatus.name() + ":" + timeout.millis() + ":" + String.join(",", sortedIndices);
+
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        CompletableFuture<Boolean> inFlight = inFlightRequests.putIfAbsent(key, future);
+
+        if (inFlight != null) {
+            sharedRequests.increment();
+            return inFlight;
+        }
+
+        ClusterHealthRequest request = new ClusterHealthRequest(indices)
+                .waitForStatus(highWaterMarkStatus)
+                .timeout(timeout);
+        request.level(ClusterHealthRequest.Level.INDICES);
+
+        try {
+            clientSupplier.get().admin().cluster().health(request, ActionListener.wrap(
+                    response -> {
+                        update(response, indices.length == 0);
+                        inFlightRequests.remove(key, future);
+                        future.complete(!response.isTimedOut());
+                    },
+                    e -> {
+                        inFlightRequests.remove(key, future);
+                        future.completeExceptionally(e);
+                    }));
+        } catch (Exception e) {
+            inFlightRequests.remove(key, future);
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    private boolean meets(ClusterHealthStatus highWaterMarkStatus, String... indices) {
+        if (refreshIntervalMillis <= 0) {
+            return false;
+        }
+
+        long now = System.nanoTime();
+
+        if (indices.length == 0) {
+            return isSatisfied(clusterStatus, highWaterMarkStatus, now);
+        }
+
+        for (String index : indices) {
+            if (!isSatisfied(statuses.get(index), highWaterMarkStatus, now)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isSatisfied(Entry entry, ClusterHealthStatus highWaterMarkStatus, long now) {
+        return entry != null && now - entry.timestampNanos < staleAfterNanos && entry.status.value() <= highWaterMarkStatus.value();
+    }
+
+    private void refresh() {
+        if (closed) {
+            return;
+        }
+
+        String[] trackedIndices = statuses.keySet().toArray(new String[0]);
+
+        if (trackedIndices.length > 0) {
+            ClusterHealthRequest request = new ClusterHealthRequest(trackedIndices)
+                    .indicesOptions(IndicesOptions.lenientExpandOpen());
+            request.level(ClusterHealthRequest.Level.INDICES);
+
+            clientSupplier.get().admin().cluster().health(request, ActionListener.wrap(
+                    response -> {
+                        statuses.keySet().retainAll(response.getIndices().keySet());
+                        update(response, false);
+                    },
+                    e -> logger.warn("index health 갱신에 실패했습니다.", e)));
+        }
+
+        if (clusterStatus != null) {
+            clientSupplier.get().admin().cluster().health(new ClusterHealthRequest(), ActionListener.wrap(
+                    response -> update(response, true),
+                    e -> logger.warn("cluster health 갱신에 실패했습니다.", e)));
+        }
+    }
+
+    private void update(ClusterHealthResponse response, boolean clusterLevel) {
+        if (closed) {
+            return;
+        }
+
+        long now = System.nanoTime();
+
+        if (clusterLevel) {
+            clusterStatus = new Entry(response.getStatus(), now);
+        } else {
+            response.getIndices().forEach((index, indexHealth) -> statuses.put(index, new Entry(indexHealth.getStatus(), now)));
+        }
+    }
+
+    private static class Entry {
+        private Entry(ClusterHealthStatus status, long timestampNanos) {
+            this.status = status;
+            this.timestampNanos = timestampNanos;
+        }
+
+        private final ClusterHealthStatus status;
+
+        private final long timestampNanos;
+    }
+
+    private final Supplier<? extends Client> clientSupplier;
+
+    private final long refreshIntervalMillis;
+
+    private final long staleAfterNanos;
+
+    private final Map<String, Entry> statuses = new ConcurrentHashMap<>();
+
+    private final Map<String, CompletableFuture<Boolean>> inFlightRequests = new ConcurrentHashMap<>();
+
+    private final LongAdder sharedRequests = new LongAdder();
+
+    private final LongAdder cachedHits = new LongAdder();
+
+    private volatile Entry clusterStatus;
+
+    private Scheduler.Cancellable scheduled;
+
+    private volatile boolean closed;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+}
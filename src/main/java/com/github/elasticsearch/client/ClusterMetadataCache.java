@@ -0,0 +1,255 @@
+package com.github.elasticsearch.client;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.cluster.state.ClusterStateRequest;
+import org.elasticsearch.action.admin.cluster.state.ClusterStateResponse;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.ClusterAdminClient;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.common.unit.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * index 단위 {@link IndexMetadata} 캐시.
+ * 조회되지 않은 index는 해당 index만 필터링한 cluster state 요청으로 가져오고,
+ * 캐시된 index는 metadata version을 기다리는 long polling 요청으로 변경될 때마다 갱신한다.
+ * 등록된 {@link MetadataListener}가 요청한 이름도 함께 감시해, 변경된 metadata를 listener에 전달한다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ClusterMetadataCache implements Closeable {
+    public ClusterMetadataCache(Supplier<? extends Client> clientSupplier) {
+        this.clientSupplier = clientSupplier;
+    }
+
+    public IndexMetadata get(String index) {
+        Entry entry = entries.get(index);
+
+        if (entry != null && watching) {
+            return entry.indexMetadata;
+        }
+
+        return apply(clusterAdmin().state(fetchRequest(index)).actionGet(), index);
+    }
+
+    public void get(String index, ActionListener<IndexMetadata> listener) {
+        Entry entry = entries.get(index);
+
+        if (entry != null && watching) {
+            listener.onResponse(entry.indexMetadata);
+            return;
+        }
+
+        clusterAdmin().state(fetchRequest(index), ActionListener.wrap(
+                response -> listener.onResponse(apply(response, index)),
+                listener::onFailure));
+    }
+
+    public void invalidate(String... indices) {
+        for (String index : indices) {
+            entries.remove(index);
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public void addMetadataListener(MetadataListener listener) {
+        metadataListeners.add(listener);
+    }
+
+    public long getMetadataVersion() {
+        return metadataVersion;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void close() {
+        generation.incrementAndGet();
+        watching = false;
+        entries.clear();
+    }
+
+    private ClusterAdminClient clusterAdmin() {
+        return clientSupplier.get().admin().cluster();
+    }
+
+    private static ClusterStateRequest fetchRequest(String index) {
+        return new ClusterStateRequest()
+                .clear()
+                .metadata(true)
+                .indices(index)
+                .indicesOptions(IndicesOptions.lenientExpand());
+    }
+
+    private IndexMetadata apply(ClusterStateResponse response, String index) {
+        Metadata metadata = response.getState().getMetadata();
+        IndexMetadata indexMetadata = metadata.index(index);
+
+        if (indexMetadata != null) {
+            put(index, indexMetadata, metadata.version());
+            startWatching();
+        }
+
+        return indexMetadata;
+    }
+
+    private void put(String index, IndexMetadata indexMetadata, long version) {
+        entries.merge(index, new Entry(indexMetadata, version),
+                (current, candidate) -> candidate.version >= current.version ? candidate : current);
+        metadataVersion = Math.max(metadataVersion, version);
+    }
+
+    void startWatching() {
+        synchronized (lock) {
+            if (watching) {
+                return;
+            }
+
+            watching = true;
+        }
+
+        watch(generation.get());
+    }
+
+    private void watch(int watchGeneration) {
+        if (watchGeneration != generation.get()) {
+            return;
+        }
+
+        String[] indices = entries.keySet().toArray(new String[0]);
+        Set<String> watched = new HashSet<>(Arrays.asList(indices));
+
+        for (MetadataListener listener : metadataListeners) {
+            watched.addAll(listener.watchedNames());
+        }
+
+        if (watched.isEmpty()) {
+            stopWatching(watchGeneration);
+            return;
+        }
+
+        try {
+            clusterAdmin().state(new ClusterStateRequest()
+                            .clear()
+                            .metadata(true)
+                            .indices(watched.toArray(new String[0]))
+                            .indicesOptions(IndicesOptions.lenientExpand())
+                            .waitForMetadataVersion(metadataVersion + 1)
+                            .waitForTimeout(WATCH_TIMEOUT),
+                    ActionListener.wrap(
+                            response -> onWatchResponse(watchGeneration, indices, response),
+                            e -> onWatchFailure(watchGeneration, e)));
+        } catch (Exception e) {
+            onWatchFailure(watchGeneration, e);
+        }
+    }
+
+    private void onWatchResponse(int watchGeneration, String[] indices, ClusterStateResponse response) {
+        if (watchGeneration != generation.get()) {
+            return;
+        }
+
+        if (!response.isWaitForTimedOut()) {
+            Metadata metadata = response.getState().getMetadata();
+            long previousVersion = metadataVersion;
+
+            for (String index : indices) {
+                IndexMetadata indexMetadata = metadata.index(index);
+
+                if (indexMetadata == null) {
+                    entries.computeIfPresent(index, (key, entry) -> entry.version <= metadata.version() ? null : entry);
+                } else {
+                    put(index, indexMetadata, metadata.version());
+                }
+            }
+
+            metadataVersion = Math.max(metadataVersion, metadata.version());
+
+            if (metadata.version() > previousVersion) {
+                notifyMetadataListeners(metadata);
+            }
+        }
+
+        watch(watchGeneration);
+    }
+
+    private void notifyMetadataListeners(Metadata metadata) {
+        for (MetadataListener listener : metadataListeners) {
+            try {
+                listener.metadataChanged(metadata);
+            } catch (Exception e) {
+                logger.warn("MetadataListener.metadataChanged 처리 중 오류가 발생했습니다.", e);
+            }
+        }
+    }
+
+    private void onWatchFailure(int watchGeneration, Exception e) {
+        if (!stopWatching(watchGeneration)) {
+            return;
+        }
+
+        logger.warn("cluster metadata 변경 감시에 실패했습니다. 캐시를 비웁니다.", e);
+        entries.clear();
+    }
+
+    private boolean stopWatching(int watchGeneration) {
+        synchronized (lock) {
+            if (watchGeneration != generation.get()) {
+                return false;
+            }
+
+            generation.incrementAndGet();
+            watching = false;
+            return true;
+        }
+    }
+
+    public interface MetadataListener {
+        Collection<String> watchedNames();
+
+        void metadataChanged(Metadata metadata);
+    }
+
+    private static class Entry {
+        private Entry(IndexMetadata indexMetadata, long version) {
+            this.indexMetadata = indexMetadata;
+            this.version = version;
+        }
+
+        private final IndexMetadata indexMetadata;
+
+        private final long version;
+    }
+
+    private static final TimeValue WATCH_TIMEOUT = TimeValue.timeValueSeconds(30);
+
+    private final Supplier<? extends Client> clientSupplier;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final List<MetadataListener> metadataListeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private volatile long metadataVersion = -1L;
+
+    private volatile boolean watching;
+
+    private final Object lock = new Object();
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+}
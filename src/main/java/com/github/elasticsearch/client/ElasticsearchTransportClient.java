@@ -1,35 +1,228 @@
 package com.github.elasticsearch.client;
 
+import com.github.elasticsearch.bulk.EsBulkBufferPool;
+import com.github.elasticsearch.metrics.EsConnectionState;
+import com.github.elasticsearch.metrics.EsMetrics;
+import com.github.elasticsearch.model.AbstractEsIndexParam;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.TransportAddress;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.plugins.Plugin;
 import org.elasticsearch.transport.client.PreBuiltTransportClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.net.InetAddress;
-import java.net.UnknownHostException;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.Function;
 
 
 public class ElasticsearchTransportClient {
+    public static final String SEARCH_POOL = "search";
+
+    public static final String BULK_POOL = "bulk";
+
+    public static final String ADMIN_POOL = "admin";
+
+    private static final long CONNECT_RETRY_INITIAL_DELAY_MILLIS = 1_000L;
+
+    private static final long CONNECT_RETRY_MAX_DELAY_MILLIS = 30_000L;
+
     public ElasticsearchTransportClient(Properties properties) {
+        this(properties, EsMetrics.NONE);
+    }
+
+    public ElasticsearchTransportClient(Properties properties, EsMetrics metrics) {
+        assert metrics != null;
         this.properties = properties;
+        this.metrics = metrics;
+        this.aliasCache = new AliasCache(() -> client(ADMIN_POOL), metadataCache, properties.getAliasCacheTtlMillis(), properties.getAliasCacheMaxSize());
+        this.healthMonitor = new ClusterHealthMonitor(() -> client(ADMIN_POOL), properties.getHealthRefreshIntervalMillis());
+        this.queryCache = new QueryResultCache(properties.getQueryCacheMaxEntries(), properties.getQueryCacheMaxBytes(), properties.getQueryCacheTtlMillis());
+        this.bulkBufferPool = new EsBulkBufferPool(properties.getBulkBufferPoolSizeInBytes(), properties.getBulkBufferPageSizeInBytes());
         this.init();
     }
 
     public void init() {
         properties.validate();
-        this.client = new PreBuiltTransportClient(Settings.builder().putProperties(properties.getSettings(), Function.identity()).build(), properties.getPlugins());
-        properties.getNodes().forEach((node) -> {
+
+        synchronized (lock) {
+            close();
+
+            this.nodeAddressMonitor = new NodeAddressMonitor(properties.getNodes(), this::clients,
+                    properties.getNodeProbeTimeoutMillis(), properties.getNodeProbeFailureThreshold(), properties.getSlowNodeLatencyRatio());
+
+            if (!properties.isLazyConnect()) {
+                openClients(nodeAddressMonitor.resolve());
+                afterConnected();
+                this.connected = CompletableFuture.completedFuture(null);
+                return;
+            }
+
+            openClients(Collections.emptyList());
+
+            TransportClient opened = client;
+            ExecutorService executor = Executors.newSingleThreadExecutor(EsExecutors.daemonThreadFactory("es-client-connect"));
+            this.connector = executor;
+            this.connected = CompletableFuture.runAsync(() -> connectWithRetry(opened), executor);
+            this.connected.whenComplete((result, e) -> executor.shutdown());
+        }
+    }
+
+    public CompletableFuture<Void> connected() {
+        return connected;
+    }
+
+    public boolean awaitConnected(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            connected.get(timeout, unit);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    public CompletableFuture<Void> warmUp(Collection<? extends AbstractEsIndexParam> indexParams) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (AbstractEsIndexParam indexParam : indexParams) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            futures.add(future);
+
+            aliasCache.get(new String[]{indexParam.getAlias()}, ActionListener.wrap(
+                    indexAliasesPairMap -> {
+                        List<CompletableFuture<IndexMetadata>> metadataFutures = new ArrayList<>();
+
+                        for (String index : indexAliasesPairMap.keySet()) {
+                            CompletableFuture<IndexMetadata> metadataFuture = new CompletableFuture<>();
+                            metadataFutures.add(metadataFuture);
+                            metadataCache.get(index, ActionListener.wrap(metadataFuture::complete, metadataFuture::completeExceptionally));
+                        }
+
+                        CompletableFuture.allOf(metadataFutures.toArray(new CompletableFuture[0])).whenComplete((result, e) -> {
+                            if (e != null) {
+                                logger.warn("index metadata warm-up에 실패했습니다. alias : {}", indexParam.getAlias(), e);
+                            }
+
+                            future.complete(null);
+                        });
+                    },
+                    e -> {
+                        logger.warn("alias warm-up에 실패했습니다. alias : {}", indexParam.getAlias(), e);
+                        future.complete(null);
+                    }));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    private void openClients(List<TransportAddress> addresses) {
+        Map<String, TransportClient> connectedPools = new HashMap<>();
+
+        try {
+            properties.getPools().forEach((pool, poolSettings) -> connectedPools.put(pool, connect(poolSettings, addresses)));
+        } catch (RuntimeException e) {
+            connectedPools.values().forEach(TransportClient::close);
+            throw e;
+        }
+
+        // pool이 설정되어 있으면 기본 client를 따로 열지 않고 admin pool(없으면 임의의 pool) client를 함께 쓴다.
+        if (connectedPools.isEmpty()) {
+            this.client = connect(Collections.emptyMap(), addresses);
+        } else {
+            this.client = connectedPools.getOrDefault(ADMIN_POOL, connectedPools.values().iterator().next());
+        }
+
+        this.pools = connectedPools;
+        metrics.bindConnectionState(this::connectionState);
+    }
+
+    private void connectWithRetry(TransportClient opened) {
+        long delayMillis = CONNECT_RETRY_INITIAL_DELAY_MILLIS;
+
+        while (client == opened) {
+            try {
+                List<TransportAddress> addresses = nodeAddressMonitor.resolve();
+
+                for (TransportClient transportClient : clients()) {
+                    addresses.forEach(transportClient::addTransportAddress);
+                }
+
+                if (client != opened) {
+                    break;
+                }
+
+                if (!opened.connectedNodes().isEmpty()) {
+                    afterConnected();
+                    return;
+                }
+
+                logger.warn("연결된 ElasticSearch node가 없습니다. {}ms 후 다시 시도합니다. addresses : {}", delayMillis, addresses);
+            } catch (RuntimeException e) {
+                if (client != opened) {
+                    break;
+                }
+
+                logger.warn("ElasticSearch 연결에 실패했습니다. {}ms 후 다시 시도합니다.", delayMillis, e);
+            }
+
             try {
-                this.client.addTransportAddress(new TransportAddress(InetAddress.getByName(node.getHost()), node.getPort()));
-            } catch (UnknownHostException var4) {
-                throw new IllegalArgumentException("잘못된 호스트 정보입니다." + node, var4);
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             }
-        });
 
-        logger.info("Connected to ElasticSearch : {}", this.client.listedNodes().toString());
+            delayMillis = Math.min(delayMillis * 2, CONNECT_RETRY_MAX_DELAY_MILLIS);
+        }
+
+        throw new IllegalStateException("ElasticSearch에 연결하기 전에 client가 종료되었습니다.");
+    }
+
+    private void afterConnected() {
+        nodeAddressMonitor.start(client.threadPool(), TimeValue.timeValueMillis(properties.getNodeRefreshIntervalMillis()));
+        healthMonitor.start(client(ADMIN_POOL).threadPool());
+        logger.info("Connected to ElasticSearch : {}, pools : {}", this.client.listedNodes().toString(), pools.keySet());
+
+        if (!properties.getWarmUpIndexParams().isEmpty()) {
+            warmUp(properties.getWarmUpIndexParams()).join();
+        }
+    }
+
+    private TransportClient connect(Map<String, String> poolSettings, List<TransportAddress> addresses) {
+        Settings settings = Settings.builder()
+                .putProperties(properties.getSettings(), Function.identity())
+                .putProperties(poolSettings, Function.identity())
+                .build();
+        TransportClient transportClient = newTransportClient(settings, properties.getPlugins());
+
+        addresses.forEach(transportClient::addTransportAddress);
+
+        return transportClient;
+    }
+
+    private List<TransportClient> clients() {
+        TransportClient current = client;
+
+        if (current == null) {
+            return Collections.emptyList();
+        }
+
+        List<TransportClient> clients = new ArrayList<>(pools.values());
+
+        if (!clients.contains(current)) {
+            clients.add(current);
+        }
+
+        return clients;
+    }
+
+    protected TransportClient newTransportClient(Settings settings, Collection<Class<? extends Plugin>> plugins) {
+        return new PreBuiltTransportClient(settings, plugins);
     }
 
     public void close() {
@@ -38,7 +231,21 @@ public class ElasticsearchTransportClient {
 
         synchronized (lock) {
             if (client != null) {
-                client.close();
+                if (connector != null) {
+                    connector.shutdownNow();
+                }
+
+                nodeAddressMonitor.close();
+                healthMonitor.close();
+                metadataCache.close();
+                aliasCache.invalidateAll();
+                queryCache.invalidateAll();
+                if (!pools.containsValue(client)) {
+                    client.close();
+                }
+
+                pools.values().forEach(TransportClient::close);
+                pools = Collections.emptyMap();
                 client = null;
             }
         }
@@ -48,14 +255,86 @@ public class ElasticsearchTransportClient {
         return client;
     }
 
+    public TransportClient client(String pool) {
+        return pools.getOrDefault(pool, client);
+    }
+
+    public Set<String> pools() {
+        return Collections.unmodifiableSet(pools.keySet());
+    }
+
     public Properties properties() {
         return properties;
     }
 
-    private TransportClient client;
+    public EsMetrics metrics() {
+        return metrics;
+    }
+
+    public EsConnectionState connectionState() {
+        TransportClient current = client;
+
+        if (current == null) {
+            return EsConnectionState.CLOSED;
+        }
+
+        return new EsConnectionState(current.listedNodes().size(), current.connectedNodes().size(), current.filteredNodes().size());
+    }
+
+    public NodeAddressMonitor nodeAddressMonitor() {
+        return nodeAddressMonitor;
+    }
+
+    public ClusterMetadataCache metadataCache() {
+        return metadataCache;
+    }
+
+    public AliasCache aliasCache() {
+        return aliasCache;
+    }
+
+    public QueryResultCache queryCache() {
+        return queryCache;
+    }
+
+    public EsBulkBufferPool bulkBufferPool() {
+        return bulkBufferPool;
+    }
+
+    public ClusterHealthMonitor healthMonitor() {
+        return healthMonitor;
+    }
+
+    public SingleFlight singleFlight() {
+        return singleFlight;
+    }
+
+    private volatile TransportClient client;
 
     private Properties properties;
 
+    private final EsMetrics metrics;
+
+    private volatile Map<String, TransportClient> pools = Collections.emptyMap();
+
+    private NodeAddressMonitor nodeAddressMonitor;
+
+    private volatile CompletableFuture<Void> connected;
+
+    private ExecutorService connector;
+
+    private final ClusterMetadataCache metadataCache = new ClusterMetadataCache(() -> client(ADMIN_POOL));
+
+    private final AliasCache aliasCache;
+
+    private final QueryResultCache queryCache;
+
+    private final EsBulkBufferPool bulkBufferPool;
+
+    private final ClusterHealthMonitor healthMonitor;
+
+    private final SingleFlight singleFlight = new SingleFlight();
+
     private final Object lock = new Object();
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
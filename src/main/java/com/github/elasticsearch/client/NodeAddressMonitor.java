@@ -0,0 +1,295 @@
+package com.github.elasticsearch.client;
+
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.transport.TransportAddress;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.threadpool.Scheduler;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * {@link Properties#getNodes()}의 host를 주기적으로 다시 resolve해 transport client의 address 목록을 DNS 변경에 맞춘다.
+ * address마다 TCP 연결 latency의 EWMA를 기록하고, 연속으로 probeFailureThreshold번 연결되지 않거나 가장 빠른 address보다
+ * 지나치게 느린 address는 다음 갱신까지 목록에서 빼서 round-robin 요청이 빠른 node로만 가도록 한다.
+ * 남은 address 중 연결된 node가 없게 되면 연결된 node 하나는 빼지 않고 유지한다.
+ * host resolve는 monitor가 소유한 하나의 daemon thread pool에서 병렬로 수행한다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class NodeAddressMonitor implements Closeable {
+    public NodeAddressMonitor(Collection<Node> nodes,
+                              Supplier<? extends Collection<TransportClient>> clientsSupplier,
+                              long probeTimeoutMillis,
+                              int probeFailureThreshold,
+                              double slowNodeLatencyRatio) {
+        assert nodes != null && clientsSupplier != null && probeFailureThreshold > 0;
+        this.nodes = nodes;
+        this.clientsSupplier = clientsSupplier;
+        this.probeTimeoutMillis = probeTimeoutMillis;
+        this.probeFailureThreshold = probeFailureThreshold;
+        this.slowNodeLatencyRatio = slowNodeLatencyRatio;
+
+        int resolverThreads = Math.max(1, Math.min(nodes.size(), MAX_RESOLVER_THREADS));
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(resolverThreads, resolverThreads,
+                RESOLVER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                EsExecutors.daemonThreadFactory("es-node-resolver"));
+        executor.allowCoreThreadTimeOut(true);
+        this.resolver = executor;
+    }
+
+    public List<TransportAddress> resolve() {
+        List<TransportAddress> addresses = new ArrayList<>();
+
+        resolveInParallel().forEach((node, resolution) -> {
+            try {
+                List<TransportAddress> nodeAddresses = resolution.join();
+                resolvedByNode.put(node, nodeAddresses);
+                addresses.addAll(nodeAddresses);
+            } catch (CompletionException e) {
+                throw new IllegalArgumentException("잘못된 호스트 정보입니다." + node, e.getCause());
+            }
+        });
+
+        return addresses;
+    }
+
+    public void start(ThreadPool threadPool, TimeValue interval) {
+        if (interval.millis() <= 0) {
+            return;
+        }
+
+        synchronized (this) {
+            if (closed || scheduled != null) {
+                return;
+            }
+
+            scheduled = threadPool.scheduleWithFixedDelay(this::refreshQuietly, interval, ThreadPool.Names.GENERIC);
+        }
+    }
+
+    public void refresh() {
+        if (closed) {
+            return;
+        }
+
+        Set<TransportAddress> resolved = new LinkedHashSet<>();
+
+        resolveInParallel().forEach((node, resolution) -> {
+            try {
+                resolvedByNode.put(node, resolution.join());
+            } catch (CompletionException e) {
+                logger.warn("node host를 resolve하지 못해 기존 address를 유지합니다. node : {}", node, e.getCause());
+            }
+
+            resolved.addAll(resolvedByNode.getOrDefault(node, Collections.emptyList()));
+        });
+
+        if (resolved.isEmpty() || closed) {
+            return;
+        }
+
+        latencies.keySet().retainAll(resolved);
+        resolved.forEach(this::probe);
+
+        List<TransportAddress> active = selectActive(resolved);
+
+        for (TransportClient client : clientsSupplier.get()) {
+            List<TransportAddress> current = client.transportAddresses();
+            List<TransportAddress> removed = current.stream().filter(address -> !active.contains(address)).collect(Collectors.toList());
+
+            keepLastConnected(client, active, removed);
+
+            active.stream().filter(address -> !current.contains(address)).forEach(client::addTransportAddress);
+            removed.forEach(client::removeTransportAddress);
+        }
+    }
+
+    public Map<TransportAddress, Long> getLatencyMicros() {
+        Map<TransportAddress, Long> latencyMicros = new LinkedHashMap<>();
+
+        latencies.forEach((address, latency) -> latencyMicros.put(address, latency.failures == 0 ? latency.ewmaNanos / 1_000L : -1L));
+
+        return latencyMicros;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+
+            if (scheduled != null) {
+                scheduled.cancel();
+                scheduled = null;
+            }
+        }
+
+        resolver.shutdown();
+    }
+
+    private Map<Node, CompletableFuture<List<TransportAddress>>> resolveInParallel() {
+        Map<Node, CompletableFuture<List<TransportAddress>>> resolutions = new LinkedHashMap<>();
+
+        if (nodes.size() <= 1) {
+            nodes.forEach(node -> resolutions.put(node, resolve(node, Runnable::run)));
+            return resolutions;
+        }
+
+        nodes.forEach(node -> resolutions.put(node, resolve(node, resolver)));
+        CompletableFuture.allOf(resolutions.values().toArray(new CompletableFuture[0])).handle((result, e) -> null).join();
+
+        return resolutions;
+    }
+
+    private CompletableFuture<List<TransportAddress>> resolve(Node node, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                List<TransportAddress> addresses = new ArrayList<>();
+
+                for (InetAddress address : InetAddress.getAllByName(node.getHost())) {
+                    addresses.add(new TransportAddress(address, node.getPort()));
+                }
+
+                return addresses;
+            } catch (UnknownHostException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("transport address 갱신에 실패했습니다.", e);
+        }
+    }
+
+    private void probe(TransportAddress address) {
+        Latency latency = latencies.computeIfAbsent(address, key -> new Latency());
+        long startNanos = System.nanoTime();
+
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(address.address().getAddress(), address.getPort()), (int) probeTimeoutMillis);
+            latency.update(System.nanoTime() - startNanos);
+        } catch (IOException e) {
+            latency.fail();
+            logger.debug("node에 연결하지 못했습니다. address : {}, 연속 실패 : {}", address, latency.failures, e);
+        }
+    }
+
+    private void keepLastConnected(TransportClient client, List<TransportAddress> active, List<TransportAddress> removed) {
+        Set<TransportAddress> connected = client.connectedNodes().stream()
+                .map(DiscoveryNode::getAddress)
+                .collect(Collectors.toSet());
+
+        if (connected.isEmpty() || active.stream().anyMatch(connected::contains)) {
+            return;
+        }
+
+        removed.stream()
+                .filter(connected::contains)
+                .min(Comparator.comparingLong(address -> {
+                    Latency latency = latencies.get(address);
+                    return latency != null && latency.ewmaNanos > 0 ? latency.ewmaNanos : Long.MAX_VALUE;
+                }))
+                .ifPresent(address -> {
+                    logger.warn("연결된 마지막 node이므로 제외하지 않습니다. address : {}, latency : {}", address, latencies.get(address));
+                    removed.remove(address);
+                });
+    }
+
+    private List<TransportAddress> selectActive(Collection<TransportAddress> resolved) {
+        long fastestNanos = resolved.stream()
+                .map(latencies::get)
+                .filter(latency -> latency != null && latency.failures == 0 && latency.ewmaNanos > 0)
+                .mapToLong(latency -> latency.ewmaNanos)
+                .min()
+                .orElse(-1L);
+
+        if (fastestNanos < 0) {
+            return new ArrayList<>(resolved);
+        }
+
+        long thresholdNanos = slowNodeLatencyRatio > 0 ?
+                Math.max((long) (fastestNanos * slowNodeLatencyRatio), MIN_SLOW_NODE_LATENCY_NANOS) : Long.MAX_VALUE;
+        List<TransportAddress> active = new ArrayList<>();
+
+        for (TransportAddress address : resolved) {
+            Latency latency = latencies.get(address);
+
+            boolean down = latency != null && latency.failures >= probeFailureThreshold;
+            boolean slow = latency != null && latency.ewmaNanos > thresholdNanos;
+
+            if (!down && !slow) {
+                active.add(address);
+            } else {
+                logger.info("응답이 없거나 느린 node를 제외합니다. address : {}, latency : {}", address, latency);
+            }
+        }
+
+        return active;
+    }
+
+    private static class Latency {
+        private void update(long nanos) {
+            ewmaNanos = failures == 0 && ewmaNanos > 0 ? (long) (EWMA_ALPHA * nanos + (1 - EWMA_ALPHA) * ewmaNanos) : nanos;
+            failures = 0;
+        }
+
+        private void fail() {
+            failures++;
+        }
+
+        @Override
+        public String toString() {
+            return failures == 0 ? (ewmaNanos / 1_000L) + "us" : "unreachable(" + failures + ")";
+        }
+
+        private volatile long ewmaNanos;
+
+        private volatile int failures;
+    }
+
+    private static final double EWMA_ALPHA = 0.3;
+
+    private static final long MIN_SLOW_NODE_LATENCY_NANOS = 5_000_000L;
+
+    private static final int MAX_RESOLVER_THREADS = 8;
+
+    private static final long RESOLVER_KEEP_ALIVE_SECONDS = 60L;
+
+    private final Collection<Node> nodes;
+
+    private final Supplier<? extends Collection<TransportClient>> clientsSupplier;
+
+    private final long probeTimeoutMillis;
+
+    private final int probeFailureThreshold;
+
+    private final double slowNodeLatencyRatio;
+
+    private final Map<TransportAddress, Latency> latencies = new ConcurrentHashMap<>();
+
+    private final Map<Node, List<TransportAddress>> resolvedByNode = new ConcurrentHashMap<>();
+
+    private final ExecutorService resolver;
+
+    private Scheduler.Cancellable scheduled;
+
+    private volatile boolean closed;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+}
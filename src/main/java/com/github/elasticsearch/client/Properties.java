@@ -1,7 +1,9 @@
 package com.github.elasticsearch.client;
 
+import com.github.elasticsearch.model.AbstractEsIndexParam;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.elasticsearch.plugins.Plugin;
 
 import java.util.*;
@@ -11,6 +13,21 @@ public class Properties {
     private Collection<Node> nodes;
     private Map<String, String> settings;
     private Collection<Class<? extends Plugin>> plugins;
+    private Map<String, Map<String, String>> pools;
+    private long aliasCacheTtlMillis = 10_000L;
+    private int aliasCacheMaxSize = 1_000;
+    private long nodeRefreshIntervalMillis = 30_000L;
+    private long nodeProbeTimeoutMillis = 1_000L;
+    private int nodeProbeFailureThreshold = 3;
+    private double slowNodeLatencyRatio = 3.0;
+    private long healthRefreshIntervalMillis = 5_000L;
+    private int queryCacheMaxEntries = 0;
+    private long queryCacheMaxBytes = 64L * 1024 * 1024;
+    private long queryCacheTtlMillis = 5_000L;
+    private long bulkBufferPoolSizeInBytes = 0;
+    private int bulkBufferPageSizeInBytes = 64 * 1024;
+    private boolean lazyConnect = false;
+    private Collection<? extends AbstractEsIndexParam> warmUpIndexParams;
 
     public Properties() {
     }
@@ -55,6 +72,126 @@ public class Properties {
         this.plugins = plugins;
     }
 
+    public Map<String, Map<String, String>> getPools() {
+        return pools == null ? Collections.emptyMap() : pools;
+    }
+
+    public void setPools(Map<String, Map<String, String>> pools) {
+        this.pools = pools;
+    }
+
+    public long getAliasCacheTtlMillis() {
+        return aliasCacheTtlMillis;
+    }
+
+    public void setAliasCacheTtlMillis(long aliasCacheTtlMillis) {
+        this.aliasCacheTtlMillis = aliasCacheTtlMillis;
+    }
+
+    public int getAliasCacheMaxSize() {
+        return aliasCacheMaxSize;
+    }
+
+    public void setAliasCacheMaxSize(int aliasCacheMaxSize) {
+        this.aliasCacheMaxSize = aliasCacheMaxSize;
+    }
+
+    public long getNodeRefreshIntervalMillis() {
+        return nodeRefreshIntervalMillis;
+    }
+
+    public void setNodeRefreshIntervalMillis(long nodeRefreshIntervalMillis) {
+        this.nodeRefreshIntervalMillis = nodeRefreshIntervalMillis;
+    }
+
+    public long getNodeProbeTimeoutMillis() {
+        return nodeProbeTimeoutMillis;
+    }
+
+    public void setNodeProbeTimeoutMillis(long nodeProbeTimeoutMillis) {
+        this.nodeProbeTimeoutMillis = nodeProbeTimeoutMillis;
+    }
+
+    public int getNodeProbeFailureThreshold() {
+        return nodeProbeFailureThreshold;
+    }
+
+    public void setNodeProbeFailureThreshold(int nodeProbeFailureThreshold) {
+        this.nodeProbeFailureThreshold = nodeProbeFailureThreshold;
+    }
+
+    public double getSlowNodeLatencyRatio() {
+        return slowNodeLatencyRatio;
+    }
+
+    public void setSlowNodeLatencyRatio(double slowNodeLatencyRatio) {
+        this.slowNodeLatencyRatio = slowNodeLatencyRatio;
+    }
+
+    public long getHealthRefreshIntervalMillis() {
+        return healthRefreshIntervalMillis;
+    }
+
+    public void setHealthRefreshIntervalMillis(long healthRefreshIntervalMillis) {
+        this.healthRefreshIntervalMillis = healthRefreshIntervalMillis;
+    }
+
+    public int getQueryCacheMaxEntries() {
+        return queryCacheMaxEntries;
+    }
+
+    public void setQueryCacheMaxEntries(int queryCacheMaxEntries) {
+        this.queryCacheMaxEntries = queryCacheMaxEntries;
+    }
+
+    public long getQueryCacheMaxBytes() {
+        return queryCacheMaxBytes;
+    }
+
+    public void setQueryCacheMaxBytes(long queryCacheMaxBytes) {
+        this.queryCacheMaxBytes = queryCacheMaxBytes;
+    }
+
+    public long getQueryCacheTtlMillis() {
+        return queryCacheTtlMillis;
+    }
+
+    public void setQueryCacheTtlMillis(long queryCacheTtlMillis) {
+        this.queryCacheTtlMillis = queryCacheTtlMillis;
+    }
+
+    public long getBulkBufferPoolSizeInBytes() {
+        return bulkBufferPoolSizeInBytes;
+    }
+
+    public void setBulkBufferPoolSizeInBytes(long bulkBufferPoolSizeInBytes) {
+        this.bulkBufferPoolSizeInBytes = bulkBufferPoolSizeInBytes;
+    }
+
+    public int getBulkBufferPageSizeInBytes() {
+        return bulkBufferPageSizeInBytes;
+    }
+
+    public void setBulkBufferPageSizeInBytes(int bulkBufferPageSizeInBytes) {
+        this.bulkBufferPageSizeInBytes = bulkBufferPageSizeInBytes;
+    }
+
+    public boolean isLazyConnect() {
+        return lazyConnect;
+    }
+
+    public void setLazyConnect(boolean lazyConnect) {
+        this.lazyConnect = lazyConnect;
+    }
+
+    public Collection<? extends AbstractEsIndexParam> getWarmUpIndexParams() {
+        return warmUpIndexParams == null ? Collections.emptyList() : warmUpIndexParams;
+    }
+
+    public void setWarmUpIndexParams(Collection<? extends AbstractEsIndexParam> warmUpIndexParams) {
+        this.warmUpIndexParams = warmUpIndexParams;
+    }
+
     public void setFullQualifiedPluginNames(Collection<String> fullQualifiedPluginNames) {
         if (fullQualifiedPluginNames != null) {
             List<Class<? extends Plugin>> plugins = new LinkedList<>();
@@ -87,6 +224,21 @@ public class Properties {
                 "nodes=" + nodes +
                 ", settings=" + settings +
                 ", plugins=" + plugins +
+                ", pools=" + pools +
+                ", aliasCacheTtlMillis=" + aliasCacheTtlMillis +
+                ", aliasCacheMaxSize=" + aliasCacheMaxSize +
+                ", nodeRefreshIntervalMillis=" + nodeRefreshIntervalMillis +
+                ", nodeProbeTimeoutMillis=" + nodeProbeTimeoutMillis +
+                ", nodeProbeFailureThreshold=" + nodeProbeFailureThreshold +
+                ", slowNodeLatencyRatio=" + slowNodeLatencyRatio +
+                ", healthRefreshIntervalMillis=" + healthRefreshIntervalMillis +
+                ", queryCacheMaxEntries=" + queryCacheMaxEntries +
+                ", queryCacheMaxBytes=" + queryCacheMaxBytes +
+                ", queryCacheTtlMillis=" + queryCacheTtlMillis +
+                ", bulkBufferPoolSizeInBytes=" + bulkBufferPoolSizeInBytes +
+                ", bulkBufferPageSizeInBytes=" + bulkBufferPageSizeInBytes +
+                ", lazyConnect=" + lazyConnect +
+                ", warmUpIndexParams=" + warmUpIndexParams +
                 '}';
     }
 
@@ -98,5 +250,31 @@ public class Properties {
         if (MapUtils.isEmpty(settings) || !settings.containsKey("cluster.name")) {
             throw new IllegalStateException("settings의 cluster.name은 필수 입력 값입니다.");
         }
+
+        getPools().forEach((pool, poolSettings) -> {
+            if (StringUtils.isBlank(pool) || poolSettings == null) {
+                throw new IllegalStateException("pool 이름과 settings는 필수 입력 값입니다. pool : " + pool);
+            }
+
+            if (poolSettings.containsKey("cluster.name") && !poolSettings.get("cluster.name").equals(settings.get("cluster.name"))) {
+                throw new IllegalStateException("pool의 cluster.name은 기본 settings와 같아야 합니다. pool : " + pool);
+            }
+        });
+
+        if (nodeProbeFailureThreshold <= 0) {
+            throw new IllegalStateException("nodeProbeFailureThreshold는 0보다 커야 합니다.");
+        }
+
+        if (queryCacheMaxEntries < 0 || queryCacheMaxBytes < 0 || queryCacheTtlMillis < 0) {
+            throw new IllegalStateException("queryCacheMaxEntries, queryCacheMaxBytes, queryCacheTtlMillis는 0 이상이어야 합니다.");
+        }
+
+        if (bulkBufferPoolSizeInBytes < 0) {
+            throw new IllegalStateException("bulkBufferPoolSizeInBytes는 0 이상이어야 합니다. 0이면 pool을 사용하지 않습니다.");
+        }
+
+        if (bulkBufferPoolSizeInBytes > 0 && (bulkBufferPageSizeInBytes <= 0 || bulkBufferPageSizeInBytes > bulkBufferPoolSizeInBytes)) {
+            throw new IllegalStateException("bulkBufferPageSizeInBytes는 0보다 크고 bulkBufferPoolSizeInBytes 이하여야 합니다.");
+        }
     }
 }
@@ -0,0 +1,355 @@
+package com.github.elasticsearch.client;
+
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.search.SearchHit;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * 검색 결과 캐시.
+ * 요청 대상을 해석한 실제 index 목록과 정규화된 요청 본문을 key로 사용하고, 항목 수와 추정 bytes를 넘으면 가장 오래 사용하지 않은 항목부터 제거한다.
+ * DAO가 refresh, alias 변경, 쓰기로 index를 바꾸면 해당 index 또는 그 index를 가리키던 alias로 조회한 항목을 무효화하며,
+ * DAO 밖에서 일어나는 변경은 TTL로 반영한다. 무효화는 이름별로 기록해, 조회 중 그 조회가 대상으로 한 index가 무효화된 경우에만 결과를 저장하지 않는다.
+ * 쓰기는 다음 refresh 전까지 검색에 보이지 않으므로 {@link #invalidate(long, String...)}로 refresh 주기를 함께 넘기고,
+ * 그 시점 이전에 시작한 조회 결과는 저장하지 않는다. refresh 주기가 음수이면 {@link #refreshed(String...)}가 호출될 때까지 저장하지 않는다.
+ * {@link #load()}로 시작한 조회는 {@link #put}으로 끝내거나 실패하면 {@link #release(Load)}로 반환하며,
+ * 무효화 기록은 반영 시점이 지났고 진행 중인 어떤 조회보다 먼저 일어난 것이면 정리한다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class QueryResultCache {
+    public QueryResultCache(int maxEntries, long maxBytes, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public SearchResponse get(String[] indices, String request) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        String key = key(indices, request);
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+
+            if (entry != null && entry.expiresAt >= System.currentTimeMillis()) {
+                hits.increment();
+                return entry.response;
+            }
+
+            if (entry != null) {
+                remove(key);
+            }
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    public Load load() {
+        synchronized (this) {
+            Load load = new Load(sequence.get(), System.currentTimeMillis());
+            loads.add(load);
+            return load;
+        }
+    }
+
+    public void release(Load load) {
+        synchronized (this) {
+            loads.remove(load);
+        }
+    }
+
+    public void put(String target, String[] indices, String request, Load load, SearchResponse response) {
+        try {
+            store(target, indices, request, load, response);
+        } finally {
+            release(load);
+        }
+    }
+
+    public void invalidate(String... names) {
+        invalidate(0L, names);
+    }
+
+    public void invalidate(long refreshIntervalMillis, String... names) {
+        long now = System.currentTimeMillis();
+        invalidate(names, previous -> Math.max(previous, refreshIntervalMillis < 0 ? Long.MAX_VALUE : now + refreshIntervalMillis));
+    }
+
+    public void refreshed(String... names) {
+        long now = System.currentTimeMillis();
+        invalidate(names, previous -> now);
+    }
+
+    public void invalidateAll() {
+        synchronized (this) {
+            invalidatedAll = sequence.incrementAndGet();
+            invalidations.add(entries.size());
+            entries.clear();
+            resolved.clear();
+            bytes = 0;
+        }
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0 && maxBytes > 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "QueryResultCache{" +
+                "size=" + size() +
+                ", bytes=" + getBytes() +
+                ", hitRatio=" + getHitRatio() +
+                ", evictions=" + getEvictionCount() +
+                ", invalidations=" + getInvalidationCount() +
+                '}';
+    }
+
+    synchronized int getChangeCount() {
+        return changes.size();
+    }
+
+    private void store(String target, String[] indices, String request, Load load, SearchResponse response) {
+        if (!isEnabled() || response.getFailedShards() > 0 || response.isTimedOut() || Boolean.TRUE.equals(response.isTerminatedEarly())) {
+            return;
+        }
+
+        String key = key(indices, request);
+        long weight = key.length() * 2L + weigh(response);
+
+        if (weight > maxBytes) {
+            return;
+        }
+
+        Set<String> names = new HashSet<>(Arrays.asList(indices));
+        names.add(target);
+
+        synchronized (this) {
+            if (isChangedSince(names, load)) {
+                return;
+            }
+
+            remove(key);
+            entries.put(key, new Entry(names, response, weight, ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE));
+            bytes += weight;
+
+            if (!target.equals(indices.length == 1 ? indices[0] : null)) {
+                resolved.put(target, new HashSet<>(Arrays.asList(indices)));
+            }
+
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+
+            while ((entries.size() > maxEntries || bytes > maxBytes) && iterator.hasNext()) {
+                Entry evicted = iterator.next().getValue();
+                iterator.remove();
+                bytes -= evicted.weight;
+                evictions.increment();
+            }
+        }
+    }
+
+    private void invalidate(String[] names, LongUnaryOperator visibleAt) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        synchronized (this) {
+            long changed = sequence.incrementAndGet();
+            Set<String> invalidated = new HashSet<>(Arrays.asList(names));
+
+            for (String name : names) {
+                Set<String> indices = resolved.remove(name);
+
+                if (indices != null) {
+                    invalidated.addAll(indices);
+                }
+            }
+
+            for (String name : invalidated) {
+                Change previous = changes.get(name);
+                changes.put(name, new Change(changed, visibleAt.applyAsLong(previous == null ? 0L : previous.visibleAt)));
+            }
+
+            prune();
+
+            Iterator<Entry> iterator = entries.values().iterator();
+
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+
+                if (!Collections.disjoint(entry.names, invalidated)) {
+                    iterator.remove();
+                    bytes -= entry.weight;
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    private boolean isChangedSince(Set<String> names, Load load) {
+        if (invalidatedAll > load.sequence) {
+            return true;
+        }
+
+        for (String name : names) {
+            Change change = changes.get(name);
+
+            if (change != null && (change.sequence > load.sequence || change.visibleAt > load.startedAt)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void prune() {
+        long oldestSequence = Long.MAX_VALUE;
+        long oldestStartedAt = System.currentTimeMillis();
+
+        for (Load load : loads) {
+            oldestSequence = Math.min(oldestSequence, load.sequence);
+            oldestStartedAt = Math.min(oldestStartedAt, load.startedAt);
+        }
+
+        long sequenceBound = oldestSequence;
+        long visibleBound = oldestStartedAt;
+        changes.values().removeIf(change -> change.sequence <= sequenceBound && change.visibleAt <= visibleBound);
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+
+        if (entry != null) {
+            bytes -= entry.weight;
+        }
+    }
+
+    private static String key(String[] indices, String request) {
+        String[] sortedIndices = indices.clone();
+        Arrays.sort(sortedIndices);
+        return String.join(",", sortedIndices) + "|" + request;
+    }
+
+    private static long weigh(SearchResponse response) {
+        long weight = RESPONSE_OVERHEAD;
+
+        for (SearchHit hit : response.getHits().getHits()) {
+            weight += HIT_OVERHEAD + hit.getId().length() * 2L + hit.getFields().size() * FIELD_OVERHEAD;
+
+            if (hit.getSourceRef() != null) {
+                weight += hit.getSourceRef().length();
+            }
+        }
+
+        return weight;
+    }
+
+    public static final class Load {
+        private Load(long sequence, long startedAt) {
+            this.sequence = sequence;
+            this.startedAt = startedAt;
+        }
+
+        private final long sequence;
+
+        private final long startedAt;
+    }
+
+    private static class Change {
+        private Change(long sequence, long visibleAt) {
+            this.sequence = sequence;
+            this.visibleAt = visibleAt;
+        }
+
+        private final long sequence;
+
+        private final long visibleAt;
+    }
+
+    private static class Entry {
+        private Entry(Set<String> names, SearchResponse response, long weight, long expiresAt) {
+            this.names = names;
+            this.response = response;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        private final Set<String> names;
+
+        private final SearchResponse response;
+
+        private final long weight;
+
+        private final long expiresAt;
+    }
+
+    private static final long RESPONSE_OVERHEAD = 256;
+
+    private static final long HIT_OVERHEAD = 128;
+
+    private static final long FIELD_OVERHEAD = 64;
+
+    private final int maxEntries;
+
+    private final long maxBytes;
+
+    private final long ttlMillis;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<String, Set<String>> resolved = new HashMap<>();
+
+    private final Map<String, Change> changes = new HashMap<>();
+
+    private final Set<Load> loads = new HashSet<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    private long bytes;
+
+    private long invalidatedAll;
+}
@@ -0,0 +1,80 @@
+package com.github.elasticsearch.client;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 같은 key로 동시에 들어온 조회를 하나의 실행으로 합친다.
+ * 먼저 들어온 호출이 자기 thread에서 조회를 실행하고, 실행 중에 들어온 호출은 그 결과나 예외를 그대로 공유한다.
+ * 결과는 캐시하지 않으므로 실행이 끝난 뒤의 호출은 다시 조회한다.
+ * 변경 작업 뒤에 {@link #invalidate()}를 호출하면 세대가 바뀌어, 이후의 호출은 변경 전에 시작된 조회에 합류하지 않고 새로 조회한다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class SingleFlight {
+    public SingleFlight() {
+    }
+
+    public <V> V get(String key, Supplier<V> loader) {
+        return get(key, loader, () -> {});
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V get(String key, Supplier<V> loader, Runnable onShared) {
+        String flightKey = generation.get() + ":" + key;
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = calls.putIfAbsent(flightKey, call);
+
+        if (inFlight != null) {
+            shared.increment();
+            onShared.run();
+
+            try {
+                return (V) inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        executed.increment();
+
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(flightKey, call);
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    public long getExecutedCount() {
+        return executed.sum();
+    }
+
+    public long getSharedCount() {
+        return shared.sum();
+    }
+
+    public int getInFlightCount() {
+        return calls.size();
+    }
+
+    private final Map<String, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder executed = new LongAdder();
+
+    private final LongAdder shared = new LongAdder();
+}
@@ -0,0 +1,187 @@
+package com.github.elasticsearch.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.elasticsearch.model.AbstractEsDocument;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.document.DocumentField;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.search.SearchHit;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * {@link AbstractEsDocument}와 _source bytes 사이의 변환.
+ * 문서 class별 {@link ObjectReader}/{@link ObjectWriter}를 한 번만 만들어 공유하고,
+ * 중간 String 없이 {@link BytesStreamOutput}에 직접 쓰고 응답 bytes에서 직접 읽는다.
+ * bulk writer의 sourceFunction으로 넘기면 writer가 {@link #writeTo(AbstractEsDocument, OutputStream)}로 bulk buffer에 바로 쓴다.
+ * {@link #readField(BytesReference, String, Class)}는 문서 전체를 만들지 않고 필요한 field 하나만 streaming으로 읽는다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EsDocumentCodec implements Function<AbstractEsDocument, BytesReference> {
+    public EsDocumentCodec() {
+        this(new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false));
+    }
+
+    public EsDocumentCodec(ObjectMapper objectMapper) {
+        assert objectMapper != null;
+        this.objectMapper = objectMapper;
+    }
+
+    public static EsDocumentCodec getInstance() {
+        return INSTANCE;
+    }
+
+    public BytesReference toBytesReference(AbstractEsDocument document) {
+        BytesStreamOutput out = new BytesStreamOutput(INITIAL_BUFFER_SIZE);
+        writeTo(document, out);
+        return out.bytes();
+    }
+
+    @Override
+    public BytesReference apply(AbstractEsDocument document) {
+        return toBytesReference(document);
+    }
+
+    public void writeTo(AbstractEsDocument document, OutputStream out) {
+        try {
+            writer(document.getClass()).writeValue(out, document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public <T> T fromBytesReference(BytesReference source, Class<T> type) {
+        try {
+            if (source instanceof BytesArray) {
+                BytesArray bytesArray = (BytesArray) source;
+                return reader(type).readValue(bytesArray.array(), bytesArray.offset(), bytesArray.length());
+            }
+
+            return reader(type).readValue(source.streamInput());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public <T extends AbstractEsDocument> T fromSearchHit(SearchHit hit, Class<T> type) {
+        T document = fromBytesReference(hit.getSourceRef(), type);
+        return afterRead(document, hit.getId(), hit.field(ROUTING_FIELD), hit.getVersion(), hit.getSeqNo(), hit.getPrimaryTerm());
+    }
+
+    public <T extends AbstractEsDocument> Optional<T> fromGetResponse(GetResponse response, Class<T> type) {
+        if (!response.isExists() || response.isSourceEmpty()) {
+            return Optional.empty();
+        }
+
+        T document = fromBytesReference(response.getSourceAsBytesRef(), type);
+        return Optional.of(afterRead(document, response.getId(), response.getField(ROUTING_FIELD), response.getVersion(),
+                response.getSeqNo(), response.getPrimaryTerm()));
+    }
+
+    public <V> Optional<V> readField(BytesReference source, String path, Class<V> type) {
+        if (source == null || source.length() == 0) {
+            return Optional.empty();
+        }
+
+        String[] segments = path.split("\\.");
+
+        try (JsonParser parser = createParser(source)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return Optional.empty();
+            }
+
+            int depth = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+
+                if (!segments[depth].equals(name)) {
+                    parser.skipChildren();
+                } else if (depth == segments.length - 1) {
+                    return token == JsonToken.VALUE_NULL ? Optional.empty() : Optional.of(reader(type).readValue(parser));
+                } else if (token == JsonToken.START_OBJECT) {
+                    depth++;
+                } else {
+                    return Optional.empty();
+                }
+            }
+
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public <V> V convertValue(Object value, Class<V> type) {
+        return type.isInstance(value) ? type.cast(value) : objectMapper.convertValue(value, type);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> toSourceMap(AbstractEsDocument document) {
+        return objectMapper.convertValue(document, Map.class);
+    }
+
+    private <T extends AbstractEsDocument> T afterRead(T document, String id, DocumentField routing, long version, long seqNo, long primaryTerm) {
+        document.setId(id);
+
+        if (routing != null && routing.getValue() != null) {
+            document.setParentId(routing.getValue().toString());
+        }
+
+        if (version >= 0) {
+            document.setVersion(version);
+        }
+
+        if (seqNo >= 0) {
+            document.setSeqNo(seqNo);
+            document.setPrimaryTerm(primaryTerm);
+        }
+
+        document.postProcessAfterCreated();
+        return document;
+    }
+
+    private JsonParser createParser(BytesReference source) throws IOException {
+        if (source instanceof BytesArray) {
+            BytesArray bytesArray = (BytesArray) source;
+            return objectMapper.getFactory().createParser(bytesArray.array(), bytesArray.offset(), bytesArray.length());
+        }
+
+        return objectMapper.getFactory().createParser(source.streamInput());
+    }
+
+    private ObjectWriter writer(Class<?> type) {
+        return writers.computeIfAbsent(type, key -> objectMapper.writerFor(key).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+    }
+
+    private ObjectReader reader(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    private static final EsDocumentCodec INSTANCE = new EsDocumentCodec();
+
+    private static final String ROUTING_FIELD = "_routing";
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+}
@@ -1,39 +1,96 @@
 package com.github.elasticsearch.dao;
 
+import com.github.elasticsearch.bulk.EsBulkBufferPool;
+import com.github.elasticsearch.bulk.EsBulkListener;
+import com.github.elasticsearch.bulk.EsBulkOptions;
+import com.github.elasticsearch.bulk.EsBulkUpdater;
+import com.github.elasticsearch.bulk.EsBulkWriter;
+import com.github.elasticsearch.client.AliasCache;
+import com.github.elasticsearch.client.ClusterHealthMonitor;
+import com.github.elasticsearch.client.ClusterMetadataCache;
 import com.github.elasticsearch.client.ElasticsearchTransportClient;
+import com.github.elasticsearch.client.QueryResultCache;
+import com.github.elasticsearch.client.SingleFlight;
+import com.github.elasticsearch.codec.EsDocumentCodec;
+import com.github.elasticsearch.metrics.EsMetrics;
+import com.github.elasticsearch.metrics.EsOperationOutcome;
+import com.github.elasticsearch.model.AbstractEsDocument;
 import com.github.elasticsearch.model.AbstractEsIndexParam;
+import com.github.elasticsearch.search.EsDocumentView;
+import com.github.elasticsearch.search.EsGetBatchOptions;
+import com.github.elasticsearch.search.EsGetBatcher;
+import com.github.elasticsearch.search.EsProjection;
+import com.github.elasticsearch.search.EsScanIterator;
+import com.github.elasticsearch.search.EsScanOptions;
+import com.github.elasticsearch.settings.EsIndexProfile;
+import com.github.elasticsearch.settings.EsIndexSettings;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.elasticsearch.action.admin.cluster.health.ClusterHealthResponse;
-import org.elasticsearch.action.admin.cluster.state.ClusterStateRequest;
-import org.elasticsearch.action.admin.indices.create.CreateIndexRequestBuilder;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.ResourceAlreadyExistsException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.indices.alias.Alias;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequestBuilder;
+import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
 import org.elasticsearch.action.admin.indices.flush.FlushResponse;
-import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.action.admin.indices.rollover.RolloverInfo;
+import org.elasticsearch.action.admin.indices.rollover.RolloverRequest;
+import org.elasticsearch.action.admin.indices.rollover.RolloverResponse;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.ClusterAdminClient;
 import org.elasticsearch.client.IndicesAdminClient;
 import org.elasticsearch.client.transport.TransportClient;
 import org.elasticsearch.cluster.health.ClusterHealthStatus;
-import org.elasticsearch.cluster.metadata.AliasMetadata;
 import org.elasticsearch.cluster.metadata.IndexMetadata;
-import org.elasticsearch.common.collect.ImmutableOpenMap;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
-import org.elasticsearch.common.xcontent.XContentBuilder;
-import org.elasticsearch.common.xcontent.XContentFactory;
-import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.VersionType;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import static java.util.stream.Collectors.toList;
 import static org.elasticsearch.cluster.health.ClusterHealthStatus.YELLOW;
 
 @SuppressWarnings("WeakerAccess")
 public class AbstractEsDao {
     public AbstractEsDao(ElasticsearchTransportClient transportClient) {
-        assert transportClient != null && transportClient.client() != null;
-        this.transportClient = transportClient.client();
+        this(transportClient, EsDocumentCodec.getInstance());
+    }
+
+    public AbstractEsDao(ElasticsearchTransportClient transportClient, EsDocumentCodec documentCodec) {
+        assert transportClient != null && transportClient.client() != null && documentCodec != null;
+        this.transportClient = transportClient.client(ElasticsearchTransportClient.SEARCH_POOL);
+        this.adminClient = transportClient.client(ElasticsearchTransportClient.ADMIN_POOL);
+        this.bulkClient = transportClient.client(ElasticsearchTransportClient.BULK_POOL);
+        this.documentCodec = documentCodec;
+        this.metadataCache = transportClient.metadataCache();
+        this.aliasCache = transportClient.aliasCache();
+        this.healthMonitor = transportClient.healthMonitor();
+        this.queryCache = transportClient.queryCache();
+        this.bulkBufferPool = transportClient.bulkBufferPool();
+        this.singleFlight = transportClient.singleFlight();
+        this.metrics = transportClient.metrics();
+        this.operations = new EsIndexOperations(transportClient, () -> maintainer);
     }
 
     public boolean openIndex(AbstractEsIndexParam indexParam) {
@@ -41,18 +98,24 @@ public class AbstractEsDao {
     }
 
     public boolean openIndex(String... indices) {
-        return waitForClusterStatus(YELLOW, indices) && indicesAdmin().prepareOpen(indices).get().isAcknowledged();
+        return measure("openIndex", () -> {
+            try {
+                return waitForClusterStatus(YELLOW, indices) && indicesAdmin().prepareOpen(indices).get().isAcknowledged();
+            } finally {
+                operations.indicesChanged(indices);
+            }
+        });
     }
 
     public boolean isIndexOpened(String index) {
-        try {
-            return waitForClusterStatus(YELLOW, index)
-                    && clusterAdmin().state(new ClusterStateRequest().clear().metadata(true).indicesOptions(IndicesOptions.strictExpand()))
-                    .get().getState().getMetadata().getIndices()
-                    .get(index).getState() == IndexMetadata.State.OPEN;
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return measure("isIndexOpened", () -> {
+            try {
+                return waitForClusterStatus(YELLOW, index)
+                        && getIndexInfo(index).getState() == IndexMetadata.State.OPEN;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
     }
 
     public boolean closeIndex(AbstractEsIndexParam indexParam) {
@@ -60,7 +123,13 @@ public class AbstractEsDao {
     }
 
     public boolean closeIndex(String... indices) {
-        return waitForClusterStatus(YELLOW, indices) && indicesAdmin().prepareClose(indices).get().isAcknowledged();
+        return measure("closeIndex", () -> {
+            try {
+                return waitForClusterStatus(YELLOW, indices) && indicesAdmin().prepareClose(indices).get().isAcknowledged();
+            } finally {
+                operations.indicesChanged(indices);
+            }
+        });
     }
 
     public boolean isIndexClosed(AbstractEsIndexParam indexParam) {
@@ -68,41 +137,61 @@ public class AbstractEsDao {
     }
 
     public boolean isIndexClosed(String index) {
-        try {
-            return waitForClusterStatus(YELLOW, index)
-                    && clusterAdmin().state(new ClusterStateRequest().clear().metadata(true).indicesOptions(IndicesOptions.strictExpand()))
-                    .get().getState().getMetadata().getIndices()
-                    .get(index).getState() == IndexMetadata.State.CLOSE;
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return measure("isIndexClosed", () -> {
+            try {
+                return waitForClusterStatus(YELLOW, index)
+                        && getIndexInfo(index).getState() == IndexMetadata.State.CLOSE;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
     }
 
     public boolean refreshIndex(String... indices) {
-        return indicesAdmin().prepareRefresh(indices).get().getFailedShards() == 0;
+        return measure("refreshIndex", () -> {
+            try {
+                return indicesAdmin().prepareRefresh(indices).get().getFailedShards() == 0;
+            } finally {
+                operations.refreshed(indices);
+            }
+        });
     }
 
     public boolean flushIndex(String... indices) {
-        return indicesAdmin().prepareFlush(indices).get().getFailedShards() == 0;
+        return measure("flushIndex", () -> indicesAdmin().prepareFlush(indices).get().getFailedShards() == 0);
+    }
+
+    public boolean updateIndexSettings(Settings settings, String... indices) {
+        return measure("updateIndexSettings", () -> {
+            try {
+                return indicesAdmin().prepareUpdateSettings(indices).setSettings(settings).get().isAcknowledged();
+            } finally {
+                operations.settingsChanged(indices);
+            }
+        });
+    }
+
+    public boolean forceMergeIndex(int maxNumSegments, String... indices) {
+        return measure("forceMergeIndex", () -> indicesAdmin().prepareForceMerge(indices).setMaxNumSegments(maxNumSegments).get().getFailedShards() == 0);
     }
 
     public boolean createIndex(AbstractEsIndexParam indexParam) {
-        return createIndex(indexParam.getNewIndexName(), indexParam.getTypeName(), indexParam.getSettingsJsonString(), indexParam.getMappingJsonString());
+        return createIndex(indexParam.getNewIndexName(), EsIndexSettings.of(indexParam));
     }
 
-    public boolean createIndex(String index, String type, Settings settings, String mappingJsonString) {
-        assert mappingJsonString != null;
+    public boolean createIndex(String index, EsIndexSettings indexSettings) {
+        return measure("createIndex", () -> createIndex(index, indexSettings.toCreateIndexRequest(index)));
+    }
 
-        CreateIndexRequestBuilder requestBuilder = indicesAdmin().prepareCreate(index);
+    public boolean applyProfile(AbstractEsIndexParam indexParam, EsIndexProfile profile, String... indices) {
+        Settings settings = EsIndexSettings.of(indexParam).profile(profile).buildDynamic();
+        logger.info("index profile을 변경합니다. indices : {}, profile : {}, settings : {}", indices, profile, settings);
 
-        if (Objects.nonNull(settings)) {
-            requestBuilder.setSettings(settings);
-        }
+        return updateIndexSettings(settings, indices);
+    }
 
-        return requestBuilder
-                .addMapping(type, mappingJsonString, XContentType.JSON)
-                .get()
-                .isAcknowledged() && isExistsIndex(index);
+    public boolean createIndex(String index, String type, Settings settings, String mappingJsonString) {
+        return measure("createIndex", () -> createIndex(index, operations.createIndexRequest(index, type, settings, mappingJsonString)));
     }
 
     public boolean createIndex(String index, String type, String mappingJsonString) {
@@ -113,14 +202,7 @@ public class AbstractEsDao {
         assert MapUtils.isNotEmpty(mappingMap);
 
         try {
-            XContentBuilder builder = XContentFactory.contentBuilder(XContentType.JSON);
-
-            return createIndex(
-                    index,
-                    type,
-                    MapUtils.isNotEmpty(settingsMap) ? builder.map(settingsMap).toString() : null,
-                    builder.map(mappingMap).toString()
-            );
+            return createIndex(index, type, EsIndexOperations.toJson(settingsMap), EsIndexOperations.toJson(mappingMap));
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -128,55 +210,287 @@ public class AbstractEsDao {
 
     public boolean createIndex(String index, String type, Map<String, ?> settingsMap, String mappingJsonString) {
         try {
-            return createIndex(
-                    index,
-                    type,
-                    MapUtils.isNotEmpty(settingsMap) ?
-                            XContentFactory.contentBuilder(XContentType.JSON).map(settingsMap).toString() : null,
-                    mappingJsonString
-            );
+            return createIndex(index, type, EsIndexOperations.toJson(settingsMap), mappingJsonString);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
     public boolean createIndex(String index, String type, String settingsJsonString, String mappingJsonString) {
-        assert mappingJsonString != null;
-
-        CreateIndexRequestBuilder requestBuilder = indicesAdmin().prepareCreate(index);
-
-        if (StringUtils.isNotBlank(settingsJsonString)) {
-            requestBuilder.setSettings(settingsJsonString, XContentType.JSON);
-        }
-
-        return requestBuilder
-                .addMapping(type, mappingJsonString, XContentType.JSON)
-                .get()
-                .isAcknowledged() && isExistsIndex(index);
+        return measure("createIndex", () -> createIndex(index, operations.createIndexRequest(index, type, settingsJsonString, mappingJsonString)));
+    }
+
+    public Map<String, Boolean> createIndices(Collection<? extends AbstractEsIndexParam> indexParams, int parallelism) {
+        return measure("createIndices", () -> {
+            assert parallelism > 0;
+
+            Map<String, Boolean> acknowledgedMap = new ConcurrentHashMap<>();
+            Semaphore permits = new Semaphore(parallelism);
+            CountDownLatch latch = new CountDownLatch(indexParams.size());
+
+            try {
+                for (AbstractEsIndexParam indexParam : indexParams) {
+                    String index = indexParam.getNewIndexName();
+                    permits.acquire();
+
+                    try {
+                        indicesAdmin().create(EsIndexSettings.of(indexParam).toCreateIndexRequest(index), ActionListener.runAfter(ActionListener.wrap(
+                                        response -> acknowledgedMap.put(index, response.isAcknowledged()),
+                                        e -> {
+                                            logger.error("index 생성에 실패했습니다. index : {}", index, e);
+                                            acknowledgedMap.put(index, false);
+                                        }), () -> {
+                                    permits.release();
+                                    latch.countDown();
+                                }));
+                    } catch (RuntimeException e) {
+                        logger.error("index 생성 요청에 실패했습니다. index : {}", index, e);
+                        acknowledgedMap.put(index, false);
+                        permits.release();
+                        latch.countDown();
+                    }
+                }
+
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } finally {
+                operations.indicesCreated(indexParams.stream().map(AbstractEsIndexParam::getNewIndexName).toArray(String[]::new));
+            }
+
+            Map<String, ClusterHealthStatus> healthMap = getIndicesHealth(acknowledgedMap.keySet().toArray(new String[0]));
+            Map<String, Boolean> createdMap = new LinkedHashMap<>();
+
+            indexParams.forEach(indexParam -> createdMap.put(indexParam.getNewIndexName(),
+                    acknowledgedMap.getOrDefault(indexParam.getNewIndexName(), false) && healthMap.containsKey(indexParam.getNewIndexName())));
+
+            return createdMap;
+        });
     }
 
     public boolean deleteIndex(String... indices) {
-        return !isExistsIndex(indices) || indicesAdmin().prepareDelete(indices).get().isAcknowledged();
+        return measure("deleteIndex", () -> {
+            try {
+                return !exists(indices) || indicesAdmin().prepareDelete(indices).get().isAcknowledged();
+            } finally {
+                operations.indicesDeleted(indices);
+            }
+        });
     }
 
     public boolean removeAlias(String index, String alias) {
-        return indicesAdmin().prepareAliases().removeAlias(index, alias).get().isAcknowledged() && !isExistsIndex(alias);
+        return measure("removeAlias", () -> {
+            try {
+                return indicesAdmin().prepareAliases().removeAlias(index, alias).get().isAcknowledged() && !exists(alias);
+            } finally {
+                operations.aliasesChanged(new String[]{index}, alias);
+            }
+        });
     }
 
     public boolean addAlias(String index, String alias) {
-        return indicesAdmin().prepareAliases().addAlias(index, alias).get().isAcknowledged() && isExistsIndex(alias);
+        return measure("addAlias", () -> {
+            operations.reactivate(index);
+
+            try {
+                return indicesAdmin().prepareAliases().addAlias(index, alias).get().isAcknowledged() && exists(alias);
+            } finally {
+                operations.aliasesChanged(new String[]{index}, alias);
+            }
+        });
     }
 
     public boolean replaceAlias(String index, String currentAlias, String newAlias) {
-        return indicesAdmin().prepareAliases()
-                .removeAlias(index, currentAlias)
-                .addAlias(index, newAlias).get().isAcknowledged() && isExistsIndex(newAlias);
+        return measure("replaceAlias", () -> {
+            try {
+                return operations.replaceAliasRequest(index, currentAlias, newAlias).get().isAcknowledged() && exists(newAlias);
+            } finally {
+                operations.aliasesChanged(new String[]{index}, currentAlias, newAlias);
+            }
+        });
     }
 
     public boolean swapAlias(String alias, String currentIndex, String newIndex) {
-        return indicesAdmin().prepareAliases()
-                .removeAlias(currentIndex, alias)
-                .addAlias(newIndex, alias).get().isAcknowledged() && isExistsIndex(newIndex);
+        return measure("swapAlias", () -> {
+            operations.reactivate(newIndex);
+            boolean swapped;
+
+            try {
+                swapped = operations.swapAliasRequest(alias, currentIndex, newIndex).get().isAcknowledged() && exists(newIndex);
+            } finally {
+                operations.aliasesChanged(new String[]{currentIndex, newIndex}, alias);
+            }
+
+            if (swapped) {
+                operations.retire(currentIndex);
+            }
+
+            return swapped;
+        });
+    }
+
+    public boolean swapAliases(Collection<? extends AbstractEsIndexParam> indexParams) {
+        return measure("swapAliases", () -> {
+            if (indexParams.isEmpty()) {
+                return true;
+            }
+
+            String[] aliases = indexParams.stream().map(AbstractEsIndexParam::getAlias).toArray(String[]::new);
+            String[] newIndices = indexParams.stream().map(AbstractEsIndexParam::getNewIndexName).toArray(String[]::new);
+            String[] changedIndices = indexParams.stream()
+                    .flatMap(indexParam -> Stream.of(indexParam.getCurrentIndexName(), indexParam.getNewIndexName()))
+                    .toArray(String[]::new);
+
+            List<String> removedIndices = new ArrayList<>();
+            IndicesAliasesRequestBuilder requestBuilder = operations.swapAliasesRequest(indexParams, removedIndices);
+
+            operations.reactivate(newIndices);
+
+            try {
+                boolean swapped = requestBuilder.get().isAcknowledged() && exists(newIndices);
+
+                if (swapped) {
+                    operations.retire(removedIndices.toArray(new String[0]));
+                }
+
+                return swapped;
+            } finally {
+                operations.aliasesChanged(changedIndices, aliases);
+            }
+        });
+    }
+
+    public boolean bootstrapRollover(AbstractEsIndexParam indexParam) {
+        return measure("bootstrapRollover", () -> {
+            String writeAlias = indexParam.getWriteAlias();
+
+            if (exists(writeAlias)) {
+                return true;
+            }
+
+            String index = indexParam.getGenerationIndexName(1);
+
+            try {
+                CreateIndexRequest request = EsIndexSettings.of(indexParam).toCreateIndexRequest(index)
+                        .alias(new Alias(indexParam.getAlias()))
+                        .alias(new Alias(writeAlias));
+
+                return indicesAdmin().create(request).actionGet().isAcknowledged() && exists(writeAlias);
+            } finally {
+                operations.aliasesChanged(new String[]{index}, indexParam.getAlias(), writeAlias);
+            }
+        });
+    }
+
+    public Optional<String> rollover(AbstractEsIndexParam indexParam, EsRolloverOptions options) {
+        options.validate();
+
+        return measure("rollover", () -> {
+            String writeAlias = indexParam.getWriteAlias();
+            String currentIndex = loadIndexNameByAlias(writeAlias).orElseThrow(() ->
+                    new IllegalStateException("write alias가 가리키는 index가 없습니다. bootstrapRollover를 먼저 호출하세요. alias : " + writeAlias));
+            int generation = indexParam.getIndexNo(currentIndex).orElseThrow(() ->
+                    new IllegalStateException("세대 번호를 알 수 없는 index입니다. index : " + currentIndex));
+            String newIndex = indexParam.getGenerationIndexName(generation + 1);
+
+            RolloverRequest request = new RolloverRequest(writeAlias, newIndex);
+
+            if (options.getMaxPrimarySizeInBytes() > 0) {
+                request.addMaxIndexSizeCondition(new ByteSizeValue(options.getMaxPrimarySizeInBytes()));
+            }
+
+            if (options.getMaxDocs() > 0) {
+                request.addMaxIndexDocsCondition(options.getMaxDocs());
+            }
+
+            if (options.getMaxAgeMillis() > 0) {
+                request.addMaxIndexAgeCondition(TimeValue.timeValueMillis(options.getMaxAgeMillis()));
+            }
+
+            EsIndexSettings.of(indexParam).applyTo(request.getCreateIndexRequest()).alias(new Alias(indexParam.getAlias()));
+
+            RolloverResponse response;
+
+            try {
+                response = indicesAdmin().rolloverIndex(request).actionGet();
+            } catch (ElasticsearchException e) {
+                if (!(ExceptionsHelper.unwrapCause(e) instanceof ResourceAlreadyExistsException)) {
+                    throw e;
+                }
+
+                logger.info("다른 작업이 먼저 rollover했습니다. alias : {}, index : {}", writeAlias, newIndex);
+                return Optional.<String>empty();
+            } finally {
+                operations.aliasesChanged(new String[]{currentIndex, newIndex}, indexParam.getAlias(), writeAlias);
+            }
+
+            if (!response.isRolledOver()) {
+                return Optional.<String>empty();
+            }
+
+            logger.info("index를 rollover했습니다. alias : {}, {} -> {}, conditions : {}",
+                    writeAlias, response.getOldIndex(), response.getNewIndex(), response.getConditionStatus());
+
+            retireGenerations(indexParam, options);
+            return Optional.of(response.getNewIndex());
+        });
+    }
+
+    public List<String> retireGenerations(AbstractEsIndexParam indexParam, EsRolloverOptions options) {
+        return measure("retireGenerations", () -> {
+            String writeIndex = loadIndexNameByAlias(indexParam.getWriteAlias()).orElse(null);
+            List<String> generations = aliasCache.load(indexParam.getAlias()).keySet()
+                    .stream()
+                    .filter(index -> !index.equals(writeIndex) && indexParam.getIndexNo(index).isPresent())
+                    .sorted(Comparator.comparingInt((String index) -> indexParam.getIndexNo(index).getAsInt()).reversed())
+                    .collect(Collectors.toList());
+
+            List<String> retiring = new ArrayList<>();
+            long now = System.currentTimeMillis();
+
+            for (int i = 0; i < generations.size(); i++) {
+                String index = generations.get(i);
+
+                if (options.getMaxGenerations() > 0 && i + 1 >= options.getMaxGenerations()) {
+                    retiring.add(index);
+                } else if (options.getRetentionMillis() > 0 && now - rolledOverAt(index, indexParam.getWriteAlias()) > options.getRetentionMillis()) {
+                    retiring.add(index);
+                }
+            }
+
+            if (retiring.isEmpty()) {
+                return retiring;
+            }
+
+            if (!deleteIndex(retiring.toArray(new String[0]))) {
+                logger.error("오래된 세대의 index를 삭제하지 못했습니다. indices : {}", retiring);
+                return Collections.<String>emptyList();
+            }
+
+            aliasCache.invalidate(indexParam.getAlias());
+            logger.info("오래된 세대의 index를 삭제했습니다. alias : {}, indices : {}", indexParam.getAlias(), retiring);
+            return retiring;
+        });
+    }
+
+    public synchronized EsIndexMaintainer startMaintenance(EsIndexMaintenanceOptions options) {
+        if (maintainer == null) {
+            maintainer = new EsIndexMaintainer(this, adminClient, options).start();
+        }
+
+        return maintainer;
+    }
+
+    public synchronized void stopMaintenance() {
+        if (maintainer != null) {
+            maintainer.close();
+            maintainer = null;
+        }
+    }
+
+    public Optional<EsIndexMaintainer> maintainer() {
+        return Optional.ofNullable(maintainer);
     }
 
     public boolean hasAlias(String index, String alias) {
@@ -188,26 +502,44 @@ public class AbstractEsDao {
     }
 
     public Optional<Map<String, List<String>>> getIndexAndAliasesPairByAlias(String... alias) {
-        ImmutableOpenMap<String, List<AliasMetadata>> aliasesMetaDataMap = indicesAdmin().prepareGetAliases(alias).get().getAliases();
+        return measure("getIndexAndAliasesPairByAlias", () -> {
+            Map<String, List<String>> indexAliasesPairMap = new HashMap<>();
 
-        Map<String, List<String>> indexAliasesPairMap = new HashMap<>();
+            coalesce("getIndexAndAliasesPairByAlias", alias, () -> aliasCache.get(alias))
+                    .forEach((index, aliases) -> indexAliasesPairMap.put(index, new ArrayList<>(aliases)));
 
-        if (aliasesMetaDataMap != null && !aliasesMetaDataMap.isEmpty()) {
-            aliasesMetaDataMap.forEach(objectCursor ->
-                    indexAliasesPairMap.put(
-                            objectCursor.key,
-                            objectCursor.value.stream().map(AliasMetadata::getAlias).collect(toList())));
-        }
-
-        return indexAliasesPairMap.isEmpty() ? Optional.empty() : Optional.of(indexAliasesPairMap);
+            return indexAliasesPairMap.isEmpty() ? Optional.empty() : Optional.of(indexAliasesPairMap);
+        });
     }
 
     public FlushResponse flushIndexResponse(String... indices) {
-        return indicesAdmin().prepareFlush(indices).get();
+        return measure("flushIndexResponse", () -> indicesAdmin().prepareFlush(indices).get());
     }
 
     public boolean isExistsIndex(String... indices) {
-        return indicesAdmin().prepareExists(indices).get().isExists();
+        return measure("isExistsIndex", () -> coalesce("isExistsIndex", indices, () -> indicesAdmin().prepareExists(indices).get().isExists()));
+    }
+
+    public Map<String, ClusterHealthStatus> getIndicesHealth(String... indices) {
+        return measure("getIndicesHealth", () -> {
+            if (indices.length == 0) {
+                return Collections.emptyMap();
+            }
+
+            Map<String, ClusterHealthStatus> healthMap = new HashMap<>();
+
+            clusterAdmin().prepareHealth(indices).get().getIndices()
+                    .forEach((index, indexHealth) -> healthMap.put(index, indexHealth.getStatus()));
+
+            return healthMap;
+        });
+    }
+
+    public boolean isIndicesHealthy(ClusterHealthStatus highWaterMarkStatus, String... indices) {
+        Map<String, ClusterHealthStatus> healthMap = getIndicesHealth(indices);
+
+        return Arrays.stream(indices).allMatch(index ->
+                healthMap.containsKey(index) && healthMap.get(index).value() <= highWaterMarkStatus.value());
     }
 
     public Optional<String> getIndexNameByAlias(String alias) {
@@ -225,57 +557,337 @@ public class AbstractEsDao {
     }
 
     public IndexMetadata getIndexInfo(String index) {
-        try {
-            return clusterAdmin().state(new ClusterStateRequest().clear().metadata(true).indicesOptions(IndicesOptions.strictExpand()))
-                    .get().getState().getMetadata().getIndices().get(index);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return measure("getIndexInfo", () -> {
+            try {
+                return coalesce("getIndexInfo", new String[]{index}, () -> metadataCache.get(index));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
     }
 
     public void setEsIndexParamInfo(AbstractEsIndexParam indexParam) {
-        indexParam.setCurrentIndexName(getIndexNameByAlias(indexParam.getAlias()).orElse(StringUtils.EMPTY));
+        applyIndexNames(indexParam, getIndexNameByAlias(indexParam.getAlias()).orElse(StringUtils.EMPTY));
+    }
+
+    public EsDocumentCodec documentCodec() {
+        return documentCodec;
+    }
+
+    public <T extends AbstractEsDocument> EsBulkWriter<T> bulkWriter(AbstractEsIndexParam indexParam) {
+        return bulkWriter(indexParam, documentCodec);
+    }
+
+    public <T extends AbstractEsDocument> EsBulkWriter<T> bulkWriter(AbstractEsIndexParam indexParam, Function<? super T, BytesReference> sourceFunction) {
+        return bulkWriter(indexParam, sourceFunction, new EsBulkOptions(), EsBulkListener.NONE);
+    }
+
+    public <T extends AbstractEsDocument> EsBulkWriter<T> bulkWriter(AbstractEsIndexParam indexParam,
+                                                                     Function<? super T, BytesReference> sourceFunction,
+                                                                     EsBulkOptions options,
+                                                                     EsBulkListener listener) {
+        return bulkWriter(bulkTarget(indexParam), indexParam.getVersionType().orElse(null), sourceFunction, options, listener);
+    }
+
+    public <T extends AbstractEsDocument> EsBulkWriter<T> bulkWriter(String index,
+                                                                     VersionType versionType,
+                                                                     Function<? super T, BytesReference> sourceFunction,
+                                                                     EsBulkOptions options,
+                                                                     EsBulkListener listener) {
+        return new EsBulkWriter<>(bulkClient, index, versionType, sourceFunction, options, invalidatingListener(index, listener), bulkBufferPool);
+    }
+
+    public <T extends AbstractEsDocument> boolean bulkIndex(AbstractEsIndexParam indexParam, Stream<? extends T> documents) {
+        return bulkIndex(indexParam, documents, documentCodec);
+    }
+
+    public <T extends AbstractEsDocument> boolean bulkIndex(AbstractEsIndexParam indexParam,
+                                                            Stream<? extends T> documents,
+                                                            Function<? super T, BytesReference> sourceFunction) {
+        return bulkIndex(indexParam, documents, sourceFunction, new EsBulkOptions(), EsBulkListener.NONE);
+    }
+
+    public <T extends AbstractEsDocument> boolean bulkIndex(AbstractEsIndexParam indexParam,
+                                                            Stream<? extends T> documents,
+                                                            Function<? super T, BytesReference> sourceFunction,
+                                                            EsBulkOptions options,
+                                                            EsBulkListener listener) {
+        return measure("bulkIndex", () -> {
+            EsBulkWriter<T> writer = bulkWriter(indexParam, sourceFunction, options, listener);
+
+            try {
+                writer.addAll(documents);
+            } finally {
+                writer.close();
+            }
+
+            return writer.getFailedCount() == 0 && writer.getSucceededCount() == writer.getSubmittedCount();
+        });
+    }
+
+    public <T extends AbstractEsDocument> EsBulkUpdater<T> bulkUpdater(AbstractEsIndexParam indexParam) {
+        return bulkUpdater(bulkTarget(indexParam), indexParam.getVersionType().orElse(null), new EsBulkOptions(), EsBulkListener.NONE);
+    }
+
+    public <T extends AbstractEsDocument> EsBulkUpdater<T> bulkUpdater(String index,
+                                                                       VersionType versionType,
+                                                                       EsBulkOptions options,
+                                                                       EsBulkListener listener) {
+        return new EsBulkUpdater<>(bulkClient, index, versionType, documentCodec, options, invalidatingListener(index, listener));
+    }
+
+    public EsReindexTask reindex(String sourceIndex, String destIndex, VersionType versionType, EsReindexOptions options) {
+        return reindex(sourceIndex, destIndex, versionType, options, EsReindexListener.NONE);
+    }
+
+    public EsReindexTask reindex(String sourceIndex,
+                                 String destIndex,
+                                 VersionType versionType,
+                                 EsReindexOptions options,
+                                 EsReindexListener listener) {
+        return new EsReindexTask(bulkClient, sourceIndex, destIndex, versionType, options, listener).start();
+    }
+
+    static void applyIndexNames(AbstractEsIndexParam indexParam, String currentIndexName) {
+        indexParam.setCurrentIndexName(currentIndexName);
 
         if (StringUtils.isNotEmpty(indexParam.getCurrentIndexName())) {
-            String indexNo = indexParam.getCurrentIndexName().substring(indexParam.getCurrentIndexName().length() - 1);
-            createIndexName(indexParam, indexNo);
+            createIndexName(indexParam, indexParam.getIndexNo(indexParam.getCurrentIndexName()).orElse(0));
         } else {
             indexParam.setNewIndexName(indexParam.getAlias() + "_1");
             indexParam.setCurrentIndexName(indexParam.getAlias() + "_2");
         }
     }
 
-    private void createIndexName(AbstractEsIndexParam indexParam, String indexNo) {
-        switch (indexNo) {
-            case "1":
-                indexParam.setNewIndexName(indexParam.getAlias() + "_2");
-                break;
-            case "2":
-                indexParam.setNewIndexName(indexParam.getAlias() + ((indexParam.getUseIndexBackup()) ? "_3" : "_1"));
-                break;
-            case "3":
-                indexParam.setNewIndexName(indexParam.getAlias() + "_1");
-                break;
+    public <T extends AbstractEsDocument> Stream<T> scan(AbstractEsIndexParam indexParam, Class<T> type) {
+        return scan(indexParam.getAlias(), type, new EsScanOptions());
+    }
+
+    public <T extends AbstractEsDocument> Stream<T> scan(String index, Class<T> type) {
+        return scan(index, type, new EsScanOptions());
+    }
+
+    public <T extends AbstractEsDocument> Stream<T> scan(String index, Class<T> type, EsScanOptions options) {
+        return scanIterator(index, type, options).stream();
+    }
+
+    public <T extends AbstractEsDocument> EsScanIterator<T> scanIterator(String index, Class<T> type, EsScanOptions options) {
+        return new EsScanIterator<>(transportClient, index, type, documentCodec, options, resolveSlices(index, options));
+    }
+
+    public List<EsDocumentView> search(AbstractEsIndexParam indexParam, SearchSourceBuilder source, EsProjection projection) {
+        return search(indexParam.getAlias(), source, projection);
+    }
+
+    public List<EsDocumentView> search(String index, SearchSourceBuilder source, EsProjection projection) {
+        return measure("search", () -> {
+            SearchResponse response = cachedSearch(index, projection.applyTo(source));
+            SearchHit[] hits = response.getHits().getHits();
+            List<EsDocumentView> views = new ArrayList<>(hits.length);
+
+            for (SearchHit hit : hits) {
+                views.add(EsDocumentView.of(hit, documentCodec, projection));
+            }
+
+            return views;
+        });
+    }
+
+    public <T extends AbstractEsDocument> Optional<T> get(AbstractEsIndexParam indexParam, String id, Class<T> type) {
+        return get(indexParam.getAlias(), id, type);
+    }
+
+    public <T extends AbstractEsDocument> Optional<T> get(String index, String id, Class<T> type) {
+        return measure("get", () -> getBatcher(index, type).get(id));
+    }
+
+    public <T extends AbstractEsDocument> CompletableFuture<Optional<T>> getAsync(String index, String id, Class<T> type) {
+        return getBatcher(index, type).getAsync(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends AbstractEsDocument> EsGetBatcher<T> getBatcher(String index, Class<T> type) {
+        return (EsGetBatcher<T>) getBatchers.computeIfAbsent(index + "/" + type.getName(),
+                key -> getBatcher(index, type, new EsGetBatchOptions()));
+    }
+
+    public <T extends AbstractEsDocument> EsGetBatcher<T> getBatcher(String index, Class<T> type, EsGetBatchOptions options) {
+        return new EsGetBatcher<>(transportClient, index, type, documentCodec, options);
+    }
+
+    private SearchResponse cachedSearch(String index, SearchSourceBuilder source) {
+        if (!queryCache.isEnabled()) {
+            return transportClient.search(new SearchRequest(index).source(source)).actionGet();
+        }
+
+        String[] indices = getIndexAndAliasesPairByAlias(index)
+                .map(indexAliasesPairMap -> indexAliasesPairMap.keySet().toArray(new String[0]))
+                .orElse(new String[]{index});
+        String request = Strings.toString(source);
+        SearchResponse cached = queryCache.get(indices, request);
+
+        if (cached != null) {
+            return cached;
         }
+
+        QueryResultCache.Load load = queryCache.load();
+        SearchResponse response;
+
+        try {
+            response = transportClient.search(new SearchRequest(index).source(source)).actionGet();
+        } catch (RuntimeException e) {
+            queryCache.release(load);
+            throw e;
+        }
+
+        queryCache.put(index, indices, request, load, response);
+        return response;
+    }
+
+    private Optional<String> loadIndexNameByAlias(String alias) {
+        return aliasCache.load(alias).entrySet()
+                .stream()
+                .filter(entry -> entry.getValue().contains(alias))
+                .map(Map.Entry::getKey)
+                .findFirst();
+    }
+
+    private boolean createIndex(String index, CreateIndexRequest request) {
+        try {
+            return indicesAdmin().create(request).actionGet().isAcknowledged() && exists(index);
+        } finally {
+            operations.indicesCreated(index);
+        }
+    }
+
+    private EsBulkListener invalidatingListener(String index, EsBulkListener listener) {
+        return queryCache.isEnabled() ? new QueryCacheInvalidatingListener(queryCache, index, () -> refreshIntervalMillis(index), listener) : listener;
+    }
+
+    private long refreshIntervalMillis(String index) {
+        try {
+            IndexMetadata indexMetadata = getIndexInfo(getIndexNameByAlias(index).orElse(index));
+
+            return indexMetadata == null ?
+                    IndexSettings.DEFAULT_REFRESH_INTERVAL.millis() :
+                    IndexSettings.INDEX_REFRESH_INTERVAL_SETTING.get(indexMetadata.getSettings()).millis();
+        } catch (RuntimeException e) {
+            logger.warn("refresh 주기를 조회하지 못해 기본값을 사용합니다. index : {}", index, e);
+            return IndexSettings.DEFAULT_REFRESH_INTERVAL.millis();
+        }
+    }
+
+    private int resolveSlices(String index, EsScanOptions options) {
+        if (options.getSlices() > 0) {
+            return options.getSlices();
+        }
+
+        IndexMetadata indexMetadata = getIndexInfo(getIndexNameByAlias(index).orElse(index));
+
+        return indexMetadata == null ? 1 : indexMetadata.getNumberOfShards();
+    }
+
+    private static void createIndexName(AbstractEsIndexParam indexParam, int indexNo) {
+        int slots = indexParam.getUseIndexBackup() ? 3 : 2;
+        indexParam.setNewIndexName(indexParam.getAlias() + "_" + (indexNo <= 0 || indexNo >= slots ? 1 : indexNo + 1));
+    }
+
+    private long rolledOverAt(String index, String writeAlias) {
+        IndexMetadata indexMetadata = getIndexInfo(index);
+
+        if (indexMetadata == null) {
+            return System.currentTimeMillis();
+        }
+
+        RolloverInfo rolloverInfo = indexMetadata.getRolloverInfos().get(writeAlias);
+        return rolloverInfo == null ? indexMetadata.getCreationDate() : rolloverInfo.getTime();
     }
 
     private IndicesAdminClient indicesAdmin() {
-        return transportClient.admin().indices();
+        return adminClient.admin().indices();
     }
 
     private ClusterAdminClient clusterAdmin() {
-        return transportClient.admin().cluster();
+        return adminClient.admin().cluster();
+    }
+
+    boolean waitForClusterStatus(ClusterHealthStatus highWaterMarkStatus, String... indices) {
+        return waitForClusterStatus(highWaterMarkStatus, new TimeValue(10_000L, TimeUnit.MILLISECONDS), indices);
+    }
+
+    boolean waitForClusterStatus(ClusterHealthStatus highWaterMarkStatus, TimeValue timeout, String... indices) {
+        return measure("waitForClusterStatus",
+                () -> healthMonitor.awaitStatus(highWaterMarkStatus, timeout, indices),
+                healthy -> !healthy);
+    }
+
+    private String bulkTarget(AbstractEsIndexParam indexParam) {
+        String writeAlias = indexParam.getWriteAlias();
+
+        if (getIndexNameByAlias(writeAlias).isPresent()) {
+            return writeAlias;
+        }
+
+        return StringUtils.isNotEmpty(indexParam.getIndexName()) ? indexParam.getIndexName() : indexParam.getAlias();
     }
 
-    private boolean waitForClusterStatus(ClusterHealthStatus highWaterMarkStatus, String... indices) {
-        ClusterHealthResponse response =
-                clusterAdmin().prepareHealth(indices)
-                        .setWaitForStatus(highWaterMarkStatus)
-                        .setTimeout(new TimeValue(10_000L, TimeUnit.MILLISECONDS))
-                        .get();
+    private boolean exists(String... indices) {
+        return indicesAdmin().prepareExists(indices).get().isExists();
+    }
+
+    private <R> R coalesce(String operation, String[] arguments, Supplier<R> loader) {
+        return singleFlight.get(operation + ":" + String.join(",", arguments), loader, () -> metrics.recordCollapsed(operation));
+    }
 
-        return !response.isTimedOut();
+    private <R> R measure(String operation, Supplier<R> action) {
+        return measure(operation, action, result -> false);
+    }
+
+    private <R> R measure(String operation, Supplier<R> action, Predicate<? super R> timedOut) {
+        if (!metrics.isEnabled()) {
+            return action.get();
+        }
+
+        long startNanos = System.nanoTime();
+
+        try {
+            R result = action.get();
+            metrics.record(operation, System.nanoTime() - startNanos,
+                    timedOut.test(result) ? EsOperationOutcome.TIMEOUT : EsOperationOutcome.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.record(operation, System.nanoTime() - startNanos, EsOperationOutcome.of(e));
+            throw e;
+        }
     }
 
     protected final TransportClient transportClient;
+
+    protected final EsDocumentCodec documentCodec;
+
+    private final TransportClient adminClient;
+
+    private final TransportClient bulkClient;
+
+    private final ClusterMetadataCache metadataCache;
+
+    private final AliasCache aliasCache;
+
+    private final ClusterHealthMonitor healthMonitor;
+
+    private final QueryResultCache queryCache;
+
+    private final EsBulkBufferPool bulkBufferPool;
+
+    private final SingleFlight singleFlight;
+
+    private final EsMetrics metrics;
+
+    private final EsIndexOperations operations;
+
+    private final Map<String, EsGetBatcher<?>> getBatchers = new ConcurrentHashMap<>();
+
+    private volatile EsIndexMaintainer maintainer;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
 }
@@ -0,0 +1,361 @@
+package com.github.elasticsearch.dao;
+
+import com.github.elasticsearch.client.AliasCache;
+import com.github.elasticsearch.client.ClusterHealthMonitor;
+import com.github.elasticsearch.client.ClusterMetadataCache;
+import com.github.elasticsearch.client.ElasticsearchTransportClient;
+import com.github.elasticsearch.metrics.EsMetrics;
+import com.github.elasticsearch.metrics.EsOperationOutcome;
+import com.github.elasticsearch.model.AbstractEsIndexParam;
+import com.github.elasticsearch.settings.EsIndexSettings;
+import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
+import org.elasticsearch.action.admin.indices.flush.FlushResponse;
+import org.elasticsearch.client.ClusterAdminClient;
+import org.elasticsearch.client.IndicesAdminClient;
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.cluster.health.ClusterHealthStatus;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.threadpool.Scheduler;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static org.elasticsearch.cluster.health.ClusterHealthStatus.YELLOW;
+
+/**
+ * {@link AbstractEsDao}의 비동기 버전.
+ * 모든 작업은 transport client의 {@link ActionListener}로 처리되며 호출 thread를 점유하지 않는다.
+ * 호출 단위 timeout은 {@link #withTimeout(TimeValue)}로 얻은 인스턴스를 사용한다.
+ * index 관리 요청과 변경 후 캐시 무효화는 {@link AbstractEsDao}와 같은 {@link EsIndexOperations}를 사용하고,
+ * {@link AbstractEsDao}를 함께 넘기면 그 DAO의 {@link EsIndexMaintainer}에도 alias 교체를 알린다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class AsyncEsDao {
+    public AsyncEsDao(ElasticsearchTransportClient transportClient) {
+        this(transportClient, new EsIndexOperations(transportClient, () -> null));
+    }
+
+    public AsyncEsDao(ElasticsearchTransportClient transportClient, AbstractEsDao dao) {
+        this(transportClient, new EsIndexOperations(transportClient, () -> dao.maintainer().orElse(null)));
+    }
+
+    private AsyncEsDao(ElasticsearchTransportClient transportClient, EsIndexOperations operations) {
+        this(transportClient.client(ElasticsearchTransportClient.ADMIN_POOL), operations, transportClient.metadataCache(), transportClient.aliasCache(),
+                transportClient.healthMonitor(), transportClient.metrics(), null);
+    }
+
+    private AsyncEsDao(TransportClient transportClient, EsIndexOperations operations, ClusterMetadataCache metadataCache, AliasCache aliasCache,
+                       ClusterHealthMonitor healthMonitor, EsMetrics metrics, TimeValue timeout) {
+        assert transportClient != null && operations != null && metrics != null;
+        this.transportClient = transportClient;
+        this.operations = operations;
+        this.metadataCache = metadataCache;
+        this.aliasCache = aliasCache;
+        this.healthMonitor = healthMonitor;
+        this.metrics = metrics;
+        this.timeout = timeout;
+    }
+
+    public AsyncEsDao withTimeout(TimeValue timeout) {
+        return new AsyncEsDao(transportClient, operations, metadataCache, aliasCache, healthMonitor, metrics, timeout);
+    }
+
+    public AsyncEsDao withTimeout(long timeout, TimeUnit unit) {
+        return withTimeout(new TimeValue(timeout, unit));
+    }
+
+    public CompletableFuture<Boolean> openIndex(AbstractEsIndexParam indexParam) {
+        return openIndex(indexParam.getNewIndexName());
+    }
+
+    public CompletableFuture<Boolean> openIndex(String... indices) {
+        return timed("openIndex", () -> waitForClusterStatus(YELLOW, indices)
+                .thenCompose(healthy -> !healthy ? completed(false) :
+                        this.<Boolean>execute(listener -> indicesAdmin().prepareOpen(indices).execute(
+                                ActionListener.map(listener, response -> response.isAcknowledged()))))
+                .whenComplete((result, e) -> operations.indicesChanged(indices)));
+    }
+
+    public CompletableFuture<Boolean> isIndexOpened(String index) {
+        return timed("isIndexOpened", () -> hasIndexState(index, IndexMetadata.State.OPEN));
+    }
+
+    public CompletableFuture<Boolean> closeIndex(AbstractEsIndexParam indexParam) {
+        return closeIndex(indexParam.getNewIndexName());
+    }
+
+    public CompletableFuture<Boolean> closeIndex(String... indices) {
+        return timed("closeIndex", () -> waitForClusterStatus(YELLOW, indices)
+                .thenCompose(healthy -> !healthy ? completed(false) :
+                        this.<Boolean>execute(listener -> indicesAdmin().prepareClose(indices).execute(
+                                ActionListener.map(listener, response -> response.isAcknowledged()))))
+                .whenComplete((result, e) -> operations.indicesChanged(indices)));
+    }
+
+    public CompletableFuture<Boolean> isIndexClosed(AbstractEsIndexParam indexParam) {
+        return isIndexClosed(indexParam.getNewIndexName());
+    }
+
+    public CompletableFuture<Boolean> isIndexClosed(String index) {
+        return timed("isIndexClosed", () -> hasIndexState(index, IndexMetadata.State.CLOSE));
+    }
+
+    public CompletableFuture<Boolean> refreshIndex(String... indices) {
+        return timed("refreshIndex", () -> this.<Boolean>execute(listener -> indicesAdmin().prepareRefresh(indices).execute(
+                        ActionListener.map(listener, response -> response.getFailedShards() == 0)))
+                .whenComplete((result, e) -> operations.refreshed(indices)));
+    }
+
+    public CompletableFuture<Boolean> flushIndex(String... indices) {
+        return timed("flushIndex", () -> flushIndexResponse(indices).thenApply(response -> response.getFailedShards() == 0));
+    }
+
+    public CompletableFuture<FlushResponse> flushIndexResponse(String... indices) {
+        return timed("flushIndexResponse", () -> execute(listener -> indicesAdmin().prepareFlush(indices).execute(listener)));
+    }
+
+    public CompletableFuture<Boolean> createIndex(AbstractEsIndexParam indexParam) {
+        return createIndex(indexParam.getNewIndexName(), EsIndexSettings.of(indexParam));
+    }
+
+    public CompletableFuture<Boolean> createIndex(String index, EsIndexSettings indexSettings) {
+        return timed("createIndex", () -> createIndex(index, indexSettings.toCreateIndexRequest(index)));
+    }
+
+    public CompletableFuture<Boolean> createIndex(String index, String type, Settings settings, String mappingJsonString) {
+        return timed("createIndex", () -> createIndex(index, operations.createIndexRequest(index, type, settings, mappingJsonString)));
+    }
+
+    public CompletableFuture<Boolean> createIndex(String index, String type, String mappingJsonString) {
+        return createIndex(index, type, "", mappingJsonString);
+    }
+
+    public CompletableFuture<Boolean> createIndex(String index, String type, Map<String, ?> settingsMap, Map<String, ?> mappingMap) {
+        assert MapUtils.isNotEmpty(mappingMap);
+
+        try {
+            return createIndex(index, type, EsIndexOperations.toJson(settingsMap), EsIndexOperations.toJson(mappingMap));
+        } catch (IOException e) {
+            return failed(e);
+        }
+    }
+
+    public CompletableFuture<Boolean> createIndex(String index, String type, Map<String, ?> settingsMap, String mappingJsonString) {
+        try {
+            return createIndex(index, type, EsIndexOperations.toJson(settingsMap), mappingJsonString);
+        } catch (IOException e) {
+            return failed(e);
+        }
+    }
+
+    public CompletableFuture<Boolean> createIndex(String index, String type, String settingsJsonString, String mappingJsonString) {
+        return timed("createIndex", () -> createIndex(index, operations.createIndexRequest(index, type, settingsJsonString, mappingJsonString)));
+    }
+
+    public CompletableFuture<Boolean> deleteIndex(String... indices) {
+        return timed("deleteIndex", () -> isExistsIndex(indices)
+                .thenCompose(exists -> !exists ? completed(true) :
+                        this.<Boolean>execute(listener -> indicesAdmin().prepareDelete(indices).execute(
+                                ActionListener.map(listener, response -> response.isAcknowledged()))))
+                .whenComplete((result, e) -> operations.indicesDeleted(indices)));
+    }
+
+    public CompletableFuture<Boolean> removeAlias(String index, String alias) {
+        return timed("removeAlias", () -> this.<Boolean>execute(listener -> indicesAdmin().prepareAliases().removeAlias(index, alias).execute(
+                        ActionListener.map(listener, response -> response.isAcknowledged())))
+                .thenCompose(acknowledged -> !acknowledged ? completed(false) : isExistsIndex(alias).thenApply(exists -> !exists))
+                .whenComplete((result, e) -> operations.aliasesChanged(new String[]{index}, alias)));
+    }
+
+    public CompletableFuture<Boolean> addAlias(String index, String alias) {
+        operations.reactivate(index);
+
+        return timed("addAlias", () -> this.<Boolean>execute(listener -> indicesAdmin().prepareAliases().addAlias(index, alias).execute(
+                        ActionListener.map(listener, response -> response.isAcknowledged())))
+                .thenCompose(acknowledged -> !acknowledged ? completed(false) : isExistsIndex(alias))
+                .whenComplete((result, e) -> operations.aliasesChanged(new String[]{index}, alias)));
+    }
+
+    public CompletableFuture<Boolean> replaceAlias(String index, String currentAlias, String newAlias) {
+        return timed("replaceAlias", () -> this.<Boolean>execute(listener -> operations.replaceAliasRequest(index, currentAlias, newAlias).execute(
+                        ActionListener.map(listener, response -> response.isAcknowledged())))
+                .thenCompose(acknowledged -> !acknowledged ? completed(false) : isExistsIndex(newAlias))
+                .whenComplete((result, e) -> operations.aliasesChanged(new String[]{index}, currentAlias, newAlias)));
+    }
+
+    public CompletableFuture<Boolean> swapAlias(String alias, String currentIndex, String newIndex) {
+        operations.reactivate(newIndex);
+
+        return timed("swapAlias", () -> this.<Boolean>execute(listener -> operations.swapAliasRequest(alias, currentIndex, newIndex).execute(
+                        ActionListener.map(listener, response -> response.isAcknowledged())))
+                .thenCompose(acknowledged -> !acknowledged ? completed(false) : isExistsIndex(newIndex))
+                .whenComplete((result, e) -> operations.aliasesChanged(new String[]{currentIndex, newIndex}, alias))
+                .thenApply(swapped -> {
+                    if (swapped) {
+                        operations.retire(currentIndex);
+                    }
+
+                    return swapped;
+                }));
+    }
+
+    public CompletableFuture<Boolean> switchAlias(AbstractEsIndexParam indexParam) {
+        String alias = indexParam.getAlias();
+        String currentIndex = indexParam.getCurrentIndexName();
+        String newIndex = indexParam.getNewIndexName();
+
+        return timed("switchAlias", () -> hasAlias(currentIndex, alias)
+                .thenCompose(aliased -> aliased ? swapAlias(alias, currentIndex, newIndex) : addAlias(newIndex, alias))
+                .thenCompose(switched -> !switched ? completed(false) : hasAlias(newIndex, alias)));
+    }
+
+    public CompletableFuture<Boolean> hasAlias(String index, String alias) {
+        return timed("hasAlias", () -> getIndexAndAliasesPairByAlias(alias).thenApply(indexNameAliasesPairMap ->
+                (indexNameAliasesPairMap.isPresent() &&
+                        indexNameAliasesPairMap.get().containsKey(index)) &&
+                        indexNameAliasesPairMap.get().get(index).contains(alias)));
+    }
+
+    public CompletableFuture<Optional<Map<String, List<String>>>> getIndexAndAliasesPairByAlias(String... alias) {
+        return timed("getIndexAndAliasesPairByAlias", () -> this.<Map<String, List<String>>>execute(listener -> aliasCache.get(alias, listener))
+                .thenApply(cached -> {
+                    Map<String, List<String>> indexAliasesPairMap = new HashMap<>();
+
+                    cached.forEach((index, aliases) -> indexAliasesPairMap.put(index, new ArrayList<>(aliases)));
+
+                    return indexAliasesPairMap.isEmpty() ? Optional.empty() : Optional.of(indexAliasesPairMap);
+                }));
+    }
+
+    public CompletableFuture<Boolean> isExistsIndex(String... indices) {
+        return timed("isExistsIndex", () -> execute(listener -> indicesAdmin().prepareExists(indices).execute(
+                ActionListener.map(listener, response -> response.isExists()))));
+    }
+
+    public CompletableFuture<Optional<String>> getIndexNameByAlias(String alias) {
+        return timed("getIndexNameByAlias", () -> getIndexAndAliasesPairByAlias(alias).thenApply(indexNameAliasesPairMap ->
+                indexNameAliasesPairMap.flatMap(pairMap -> pairMap.entrySet()
+                        .stream()
+                        .filter(entry -> entry.getValue().contains(alias))
+                        .map(Map.Entry::getKey)
+                        .findFirst())));
+    }
+
+    public CompletableFuture<IndexMetadata> getIndexInfo(String index) {
+        return timed("getIndexInfo", () -> execute(listener -> metadataCache.get(index, listener)));
+    }
+
+    public CompletableFuture<AbstractEsIndexParam> setEsIndexParamInfo(AbstractEsIndexParam indexParam) {
+        return timed("setEsIndexParamInfo", () -> getIndexNameByAlias(indexParam.getAlias()).thenApply(currentIndexName -> {
+            AbstractEsDao.applyIndexNames(indexParam, currentIndexName.orElse(StringUtils.EMPTY));
+            return indexParam;
+        }));
+    }
+
+    private CompletableFuture<Boolean> createIndex(String index, CreateIndexRequest request) {
+        return this.<Boolean>execute(listener -> indicesAdmin().create(request, ActionListener.map(listener, response -> response.isAcknowledged())))
+                .thenCompose(acknowledged -> !acknowledged ? completed(false) : isExistsIndex(index))
+                .whenComplete((result, e) -> operations.indicesCreated(index));
+    }
+
+    private CompletableFuture<Boolean> hasIndexState(String index, IndexMetadata.State state) {
+        return waitForClusterStatus(YELLOW, index)
+                .thenCompose(healthy -> !healthy ? completed(false) :
+                        getIndexInfo(index).thenApply(indexMetadata -> indexMetadata.getState() == state));
+    }
+
+    private CompletableFuture<Boolean> waitForClusterStatus(ClusterHealthStatus highWaterMarkStatus, String... indices) {
+        return measure("waitForClusterStatus", () -> this.<Boolean>execute(listener -> healthMonitor.awaitStatus(
+                highWaterMarkStatus, new TimeValue(10_000L, TimeUnit.MILLISECONDS), indices, listener)), healthy -> !healthy);
+    }
+
+    private IndicesAdminClient indicesAdmin() {
+        return transportClient.admin().indices();
+    }
+
+    private ClusterAdminClient clusterAdmin() {
+        return transportClient.admin().cluster();
+    }
+
+    private <R> CompletableFuture<R> execute(Consumer<ActionListener<R>> action) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+
+        try {
+            action.accept(ActionListener.wrap(future::complete, future::completeExceptionally));
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    private <R> CompletableFuture<R> timed(String operation, Supplier<CompletableFuture<R>> action) {
+        return measure(operation, () -> timed(action.get()), result -> false);
+    }
+
+    private <R> CompletableFuture<R> measure(String operation, Supplier<CompletableFuture<R>> action, Predicate<? super R> timedOut) {
+        if (!metrics.isEnabled()) {
+            return action.get();
+        }
+
+        long startNanos = System.nanoTime();
+        CompletableFuture<R> future = action.get();
+
+        future.whenComplete((result, e) -> metrics.record(operation, System.nanoTime() - startNanos,
+                e != null ? EsOperationOutcome.of(e) :
+                        timedOut.test(result) ? EsOperationOutcome.TIMEOUT : EsOperationOutcome.SUCCESS));
+
+        return future;
+    }
+
+    private <R> CompletableFuture<R> timed(CompletableFuture<R> future) {
+        if (timeout == null || future.isDone()) {
+            return future;
+        }
+
+        Scheduler.ScheduledCancellable scheduled = transportClient.threadPool().schedule(
+                () -> future.completeExceptionally(new ElasticsearchTimeoutException("{} 안에 완료되지 않았습니다.", timeout)),
+                timeout,
+                ThreadPool.Names.SAME);
+
+        future.whenComplete((result, e) -> scheduled.cancel());
+
+        return future;
+    }
+
+    private static <R> CompletableFuture<R> completed(R value) {
+        return CompletableFuture.completedFuture(value);
+    }
+
+    private static <R> CompletableFuture<R> failed(Throwable e) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    protected final TransportClient transportClient;
+
+    private final EsIndexOperations operations;
+
+    private final ClusterMetadataCache metadataCache;
+
+    private final AliasCache aliasCache;
+
+    private final ClusterHealthMonitor healthMonitor;
+
+    private final EsMetrics metrics;
+
+    private final TimeValue timeout;
+}
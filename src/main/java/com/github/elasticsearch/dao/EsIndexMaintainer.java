@@ -0,0 +1,249 @@
+package com.github.elasticsearch.dao;
+
+import org.elasticsearch.action.admin.indices.forcemerge.ForceMergeAction;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.cluster.health.ClusterHealthStatus;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.threadpool.Scheduler;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * alias에서 빠진 index의 segment 정리 scheduler.
+ * 등록된 index를 쓰기 차단, force merge, replica 축소, grace period 후 close 순서로 한 단계씩 진행한다.
+ * 한 주기에 maxOperationsPerTick 단계만 실행하고, cluster에서 force merge가 진행 중이거나 상태가 RED이면 그 주기를 건너뛴다.
+ * 정리 중이거나 닫힌 index가 다시 alias에 연결되면 {@link #reactivate(String...)}로 쓰기 차단과 replica, open 상태를 되돌린다.
+ * reactivate 없이 alias가 연결된 index도 다음 주기에 같은 방법으로 되돌린 뒤 정리 대상에서 뺀다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EsIndexMaintainer implements Closeable {
+    EsIndexMaintainer(AbstractEsDao dao, Client client, EsIndexMaintenanceOptions options) {
+        assert dao != null && client != null && options != null;
+        options.validate();
+
+        this.dao = dao;
+        this.client = client;
+        this.options = options;
+    }
+
+    EsIndexMaintainer start() {
+        synchronized (this) {
+            if (!closed && scheduled == null) {
+                scheduled = client.threadPool().scheduleWithFixedDelay(this::tick,
+                        TimeValue.timeValueMillis(options.getIntervalMillis()), ThreadPool.Names.GENERIC);
+            }
+        }
+
+        return this;
+    }
+
+    public void retire(String... indices) {
+        long now = System.currentTimeMillis();
+
+        for (String index : indices) {
+            if (tracked.putIfAbsent(index, new Entry(now)) == null) {
+                logger.info("alias에서 빠진 index를 정리 대상으로 등록합니다. index : {}", index);
+            }
+        }
+    }
+
+    public void reactivate(String... indices) {
+        for (String index : indices) {
+            Entry entry = tracked.remove(index);
+
+            if (entry == null) {
+                continue;
+            }
+
+            synchronized (entry) {
+                restore(index, entry);
+                logger.info("다시 사용하는 index를 정리 대상에서 제외했습니다. index : {}, state : {}", index, entry.state);
+            }
+        }
+    }
+
+    public void forget(String... indices) {
+        for (String index : indices) {
+            tracked.remove(index);
+        }
+    }
+
+    public Set<String> getTrackedIndices() {
+        return Collections.unmodifiableSet(tracked.keySet());
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+
+            if (scheduled != null) {
+                scheduled.cancel();
+                scheduled = null;
+            }
+        }
+    }
+
+    private void tick() {
+        if (closed || tracked.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (isBusy()) {
+                logger.debug("force merge가 진행 중이거나 cluster 상태가 RED여서 index 정리를 건너뜁니다.");
+                return;
+            }
+
+            int operations = 0;
+
+            for (Map.Entry<String, Entry> entry : tracked.entrySet()) {
+                if (closed || operations >= options.getMaxOperationsPerTick()) {
+                    break;
+                }
+
+                if (step(entry.getKey(), entry.getValue())) {
+                    operations++;
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("index 정리 중 오류가 발생했습니다.", e);
+        }
+    }
+
+    private boolean isBusy() {
+        return !client.admin().cluster().prepareListTasks().setActions(ForceMergeAction.NAME + "*").get().getTasks().isEmpty()
+                || client.admin().cluster().prepareHealth().get().getStatus() == ClusterHealthStatus.RED;
+    }
+
+    private boolean step(String index, Entry entry) {
+        synchronized (entry) {
+            if (tracked.get(index) != entry) {
+                return false;
+            }
+
+            IndexMetadata indexMetadata = dao.getIndexInfo(index);
+
+            if (indexMetadata == null) {
+                tracked.remove(index, entry);
+                return false;
+            }
+
+            if (!indexMetadata.getAliases().isEmpty()) {
+                try {
+                    restore(index, entry);
+                } catch (RuntimeException e) {
+                    logger.warn("alias가 다시 연결된 index를 되돌리지 못했습니다. 다음 주기에 다시 시도합니다. index : {}", index, e);
+                    return true;
+                }
+
+                tracked.remove(index, entry);
+                logger.info("alias가 다시 연결된 index를 되돌리고 정리 대상에서 제외했습니다. index : {}, state : {}", index, entry.state);
+                return entry.state != State.RETIRED;
+            }
+
+            switch (entry.state) {
+                case RETIRED:
+                    if (dao.updateIndexSettings(Settings.builder().put(IndexMetadata.SETTING_BLOCKS_WRITE, true).build(), index)) {
+                        entry.state = State.READ_ONLY;
+                        logger.info("index 쓰기를 차단했습니다. index : {}", index);
+                    }
+
+                    return true;
+                case READ_ONLY:
+                    if (dao.forceMergeIndex(options.getMaxNumSegments(), index)) {
+                        entry.state = State.MERGED;
+                        logger.info("index를 force merge했습니다. index : {}, maxNumSegments : {}", index, options.getMaxNumSegments());
+                    }
+
+                    return true;
+                case MERGED:
+                    if (options.getRetiredReplicas() < 0 || indexMetadata.getNumberOfReplicas() <= options.getRetiredReplicas()) {
+                        entry.state = State.REPLICAS_REDUCED;
+                        return false;
+                    }
+
+                    Settings replicas = Settings.builder().put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, options.getRetiredReplicas()).build();
+
+                    if (dao.updateIndexSettings(replicas, index)) {
+                        entry.originalReplicas = indexMetadata.getNumberOfReplicas();
+                        entry.state = State.REPLICAS_REDUCED;
+                        logger.info("index replica를 줄였습니다. index : {}, replicas : {} -> {}",
+                                index, entry.originalReplicas, options.getRetiredReplicas());
+                    }
+
+                    return true;
+                case REPLICAS_REDUCED:
+                    if (options.getCloseAfterMillis() <= 0 || System.currentTimeMillis() - entry.retiredAt < options.getCloseAfterMillis()) {
+                        return false;
+                    }
+
+                    if (dao.closeIndex(index)) {
+                        entry.state = State.CLOSED;
+                        logger.info("grace period가 지난 index를 닫았습니다. index : {}", index);
+                    }
+
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    private void restore(String index, Entry entry) {
+        if (entry.state == State.CLOSED && !dao.openIndex(index)) {
+            throw new IllegalStateException("정리 중 닫은 index를 다시 열지 못했습니다. index : " + index);
+        }
+
+        if (entry.state != State.RETIRED) {
+            Settings.Builder settings = Settings.builder().putNull(IndexMetadata.SETTING_BLOCKS_WRITE);
+
+            if (entry.originalReplicas >= 0) {
+                settings.put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, entry.originalReplicas);
+            }
+
+            if (!dao.updateIndexSettings(settings.build(), index)) {
+                throw new IllegalStateException("정리 중 변경한 index 설정을 되돌리지 못했습니다. index : " + index);
+            }
+        }
+    }
+
+    private enum State {
+        RETIRED, READ_ONLY, MERGED, REPLICAS_REDUCED, CLOSED
+    }
+
+    private static class Entry {
+        private Entry(long retiredAt) {
+            this.retiredAt = retiredAt;
+        }
+
+        private final long retiredAt;
+
+        private volatile State state = State.RETIRED;
+
+        private volatile int originalReplicas = -1;
+    }
+
+    private final AbstractEsDao dao;
+
+    private final Client client;
+
+    private final EsIndexMaintenanceOptions options;
+
+    private final Map<String, Entry> tracked = new ConcurrentHashMap<>();
+
+    private Scheduler.Cancellable scheduled;
+
+    private volatile boolean closed;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+}
@@ -0,0 +1,82 @@
+package com.github.elasticsearch.dao;
+
+@SuppressWarnings("WeakerAccess")
+public class EsIndexMaintenanceOptions {
+    private long intervalMillis = 60_000L;
+    private int maxOperationsPerTick = 1;
+    private int maxNumSegments = 1;
+    private int retiredReplicas = -1;
+    private long closeAfterMillis = 24 * 60 * 60 * 1000L;
+
+    public EsIndexMaintenanceOptions() {
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    public int getMaxOperationsPerTick() {
+        return maxOperationsPerTick;
+    }
+
+    public void setMaxOperationsPerTick(int maxOperationsPerTick) {
+        this.maxOperationsPerTick = maxOperationsPerTick;
+    }
+
+    public int getMaxNumSegments() {
+        return maxNumSegments;
+    }
+
+    public void setMaxNumSegments(int maxNumSegments) {
+        this.maxNumSegments = maxNumSegments;
+    }
+
+    public int getRetiredReplicas() {
+        return retiredReplicas;
+    }
+
+    public void setRetiredReplicas(int retiredReplicas) {
+        this.retiredReplicas = retiredReplicas;
+    }
+
+    public long getCloseAfterMillis() {
+        return closeAfterMillis;
+    }
+
+    public void setCloseAfterMillis(long closeAfterMillis) {
+        this.closeAfterMillis = closeAfterMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "EsIndexMaintenanceOptions{" +
+                "intervalMillis=" + intervalMillis +
+                ", maxOperationsPerTick=" + maxOperationsPerTick +
+                ", maxNumSegments=" + maxNumSegments +
+                ", retiredReplicas=" + retiredReplicas +
+                ", closeAfterMillis=" + closeAfterMillis +
+                '}';
+    }
+
+    void validate() {
+        if (intervalMillis <= 0) {
+            throw new IllegalStateException("intervalMillis는 0보다 커야 합니다.");
+        }
+
+        if (maxOperationsPerTick <= 0) {
+            throw new IllegalStateException("maxOperationsPerTick은 0보다 커야 합니다.");
+        }
+
+        if (maxNumSegments <= 0) {
+            throw new IllegalStateException("maxNumSegments는 0보다 커야 합니다.");
+        }
+
+        if (closeAfterMillis < 0) {
+            throw new IllegalStateException("closeAfterMillis는 0 이상이어야 합니다. 0이면 닫지 않습니다.");
+        }
+    }
+}
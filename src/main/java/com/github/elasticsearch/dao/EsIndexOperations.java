@@ -0,0 +1,207 @@
+package com.github.elasticsearch.dao;
+
+import com.github.elasticsearch.client.AliasCache;
+import com.github.elasticsearch.client.ClusterHealthMonitor;
+import com.github.elasticsearch.client.ClusterMetadataCache;
+import com.github.elasticsearch.client.ElasticsearchTransportClient;
+import com.github.elasticsearch.client.QueryResultCache;
+import com.github.elasticsearch.client.SingleFlight;
+import com.github.elasticsearch.model.AbstractEsIndexParam;
+import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequestBuilder;
+import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
+import org.elasticsearch.action.admin.indices.create.CreateIndexRequestBuilder;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.client.IndicesAdminClient;
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentType;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link AbstractEsDao}와 {@link AsyncEsDao}가 함께 쓰는 index 관리 요청 생성과 변경 후 캐시 무효화.
+ * 동기/비동기 DAO가 같은 변경 뒤에 같은 캐시와 {@link EsIndexMaintainer} 상태를 정리하도록 규칙을 한 곳에 둔다.
+ */
+final class EsIndexOperations {
+    EsIndexOperations(ElasticsearchTransportClient transportClient, Supplier<EsIndexMaintainer> maintainerSupplier) {
+        assert transportClient != null && maintainerSupplier != null;
+        this.adminClient = transportClient.client(ElasticsearchTransportClient.ADMIN_POOL);
+        this.metadataCache = transportClient.metadataCache();
+        this.aliasCache = transportClient.aliasCache();
+        this.healthMonitor = transportClient.healthMonitor();
+        this.queryCache = transportClient.queryCache();
+        this.singleFlight = transportClient.singleFlight();
+        this.maintainerSupplier = maintainerSupplier;
+    }
+
+    CreateIndexRequest createIndexRequest(String index, String type, Settings settings, String mappingJsonString) {
+        assert mappingJsonString != null;
+
+        CreateIndexRequestBuilder requestBuilder = indicesAdmin().prepareCreate(index);
+
+        if (Objects.nonNull(settings)) {
+            requestBuilder.setSettings(settings);
+        }
+
+        return requestBuilder.addMapping(type, mappingJsonString, XContentType.JSON).request();
+    }
+
+    CreateIndexRequest createIndexRequest(String index, String type, String settingsJsonString, String mappingJsonString) {
+        assert mappingJsonString != null;
+
+        CreateIndexRequestBuilder requestBuilder = indicesAdmin().prepareCreate(index);
+
+        if (StringUtils.isNotBlank(settingsJsonString)) {
+            requestBuilder.setSettings(settingsJsonString, XContentType.JSON);
+        }
+
+        return requestBuilder.addMapping(type, mappingJsonString, XContentType.JSON).request();
+    }
+
+    IndicesAliasesRequestBuilder replaceAliasRequest(String index, String currentAlias, String newAlias) {
+        return indicesAdmin().prepareAliases()
+                .removeAlias(index, currentAlias)
+                .addAlias(index, newAlias);
+    }
+
+    IndicesAliasesRequestBuilder swapAliasRequest(String alias, String currentIndex, String newIndex) {
+        return indicesAdmin().prepareAliases()
+                .removeAlias(currentIndex, alias)
+                .addAlias(newIndex, alias);
+    }
+
+    IndicesAliasesRequestBuilder swapAliasesRequest(Collection<? extends AbstractEsIndexParam> indexParams, List<String> removedIndices) {
+        IndicesAliasesRequestBuilder requestBuilder = indicesAdmin().prepareAliases();
+        Map<String, Set<String>> aliased = loadAliases(indexParams.stream()
+                .filter(indexParam -> StringUtils.isNotEmpty(indexParam.getCurrentIndexName())
+                        && !indexParam.getCurrentIndexName().equals(indexParam.getNewIndexName()))
+                .collect(Collectors.toList()));
+
+        for (AbstractEsIndexParam indexParam : indexParams) {
+            String currentIndex = indexParam.getCurrentIndexName();
+
+            if (aliased.getOrDefault(currentIndex, Collections.emptySet()).contains(indexParam.getAlias())
+                    && !currentIndex.equals(indexParam.getNewIndexName())) {
+                requestBuilder.removeAlias(currentIndex, indexParam.getAlias());
+                removedIndices.add(currentIndex);
+            }
+
+            requestBuilder.addAlias(indexParam.getNewIndexName(), indexParam.getAlias());
+        }
+
+        return requestBuilder;
+    }
+
+    private Map<String, Set<String>> loadAliases(Collection<? extends AbstractEsIndexParam> indexParams) {
+        Map<String, Set<String>> aliased = new HashMap<>();
+
+        if (indexParams.isEmpty()) {
+            return aliased;
+        }
+
+        indicesAdmin().prepareGetAliases(indexParams.stream().map(AbstractEsIndexParam::getAlias).distinct().toArray(String[]::new))
+                .setIndices(indexParams.stream().map(AbstractEsIndexParam::getCurrentIndexName).distinct().toArray(String[]::new))
+                .setIndicesOptions(IndicesOptions.lenientExpand())
+                .get()
+                .getAliases()
+                .forEach(cursor -> cursor.value.forEach(aliasMetadata ->
+                        aliased.computeIfAbsent(cursor.key, key -> new HashSet<>()).add(aliasMetadata.alias())));
+
+        return aliased;
+    }
+
+    void indicesChanged(String... indices) {
+        metadataCache.invalidate(indices);
+        healthMonitor.invalidate(indices);
+        queryCache.invalidate(indices);
+        singleFlight.invalidate();
+    }
+
+    void settingsChanged(String... indices) {
+        metadataCache.invalidate(indices);
+        singleFlight.invalidate();
+    }
+
+    void indicesCreated(String... indices) {
+        metadataCache.invalidate(indices);
+        queryCache.invalidate(indices);
+        singleFlight.invalidate();
+    }
+
+    void indicesDeleted(String... indices) {
+        metadataCache.invalidate(indices);
+        healthMonitor.invalidate(indices);
+        aliasCache.invalidateIndices(indices);
+        queryCache.invalidate(indices);
+        singleFlight.invalidate();
+
+        EsIndexMaintainer maintainer = maintainerSupplier.get();
+
+        if (maintainer != null) {
+            maintainer.forget(indices);
+        }
+    }
+
+    void aliasesChanged(String[] indices, String... aliases) {
+        metadataCache.invalidate(indices);
+        aliasCache.invalidate(aliases);
+        queryCache.invalidate(Stream.concat(Stream.of(indices), Stream.of(aliases)).toArray(String[]::new));
+        singleFlight.invalidate();
+    }
+
+    void refreshed(String... indices) {
+        queryCache.refreshed(indices);
+    }
+
+    void reactivate(String... indices) {
+        EsIndexMaintainer maintainer = maintainerSupplier.get();
+
+        if (maintainer != null) {
+            maintainer.reactivate(indices);
+        }
+    }
+
+    void retire(String... indices) {
+        EsIndexMaintainer maintainer = maintainerSupplier.get();
+
+        if (maintainer != null && indices.length > 0) {
+            maintainer.retire(indices);
+        }
+    }
+
+    static String toJson(Map<String, ?> map) throws IOException {
+        return MapUtils.isNotEmpty(map) ? XContentFactory.contentBuilder(XContentType.JSON).map(map).toString() : null;
+    }
+
+    private IndicesAdminClient indicesAdmin() {
+        return adminClient.admin().indices();
+    }
+
+    private final TransportClient adminClient;
+
+    private final ClusterMetadataCache metadataCache;
+
+    private final AliasCache aliasCache;
+
+    private final ClusterHealthMonitor healthMonitor;
+
+    private final QueryResultCache queryCache;
+
+    private final SingleFlight singleFlight;
+
+    private final Supplier<EsIndexMaintainer> maintainerSupplier;
+}
@@ -0,0 +1,117 @@
+package com.github.elasticsearch.dao;
+
+import com.github.elasticsearch.bulk.EsBulkListener;
+import com.github.elasticsearch.bulk.EsBulkOptions;
+import org.elasticsearch.cluster.health.ClusterHealthStatus;
+
+import java.util.concurrent.Executor;
+
+@SuppressWarnings("WeakerAccess")
+public class EsIndexRebuildOptions {
+    private EsBulkOptions bulkOptions = new EsBulkOptions();
+    private EsBulkListener bulkListener = EsBulkListener.NONE;
+    private long maxFailedDocuments = 0;
+    private int maxNumSegments = 1;
+    private String defaultReplicas = "1";
+    private ClusterHealthStatus activationStatus = ClusterHealthStatus.YELLOW;
+    private long activationTimeoutMillis = 30 * 60_000L;
+    private EsReindexOptions reindexOptions = new EsReindexOptions();
+    private EsReindexListener reindexListener = EsReindexListener.NONE;
+    private Executor activationExecutor;
+
+    public EsIndexRebuildOptions() {
+    }
+
+    public EsBulkOptions getBulkOptions() {
+        return bulkOptions;
+    }
+
+    public void setBulkOptions(EsBulkOptions bulkOptions) {
+        this.bulkOptions = bulkOptions;
+    }
+
+    public EsBulkListener getBulkListener() {
+        return bulkListener;
+    }
+
+    public void setBulkListener(EsBulkListener bulkListener) {
+        this.bulkListener = bulkListener;
+    }
+
+    public long getMaxFailedDocuments() {
+        return maxFailedDocuments;
+    }
+
+    public void setMaxFailedDocuments(long maxFailedDocuments) {
+        this.maxFailedDocuments = maxFailedDocuments;
+    }
+
+    public int getMaxNumSegments() {
+        return maxNumSegments;
+    }
+
+    public void setMaxNumSegments(int maxNumSegments) {
+        this.maxNumSegments = maxNumSegments;
+    }
+
+    public String getDefaultReplicas() {
+        return defaultReplicas;
+    }
+
+    public void setDefaultReplicas(String defaultReplicas) {
+        this.defaultReplicas = defaultReplicas;
+    }
+
+    public ClusterHealthStatus getActivationStatus() {
+        return activationStatus;
+    }
+
+    public void setActivationStatus(ClusterHealthStatus activationStatus) {
+        this.activationStatus = activationStatus;
+    }
+
+    public long getActivationTimeoutMillis() {
+        return activationTimeoutMillis;
+    }
+
+    public void setActivationTimeoutMillis(long activationTimeoutMillis) {
+        this.activationTimeoutMillis = activationTimeoutMillis;
+    }
+
+    public EsReindexOptions getReindexOptions() {
+        return reindexOptions;
+    }
+
+    public void setReindexOptions(EsReindexOptions reindexOptions) {
+        this.reindexOptions = reindexOptions;
+    }
+
+    public EsReindexListener getReindexListener() {
+        return reindexListener;
+    }
+
+    public void setReindexListener(EsReindexListener reindexListener) {
+        this.reindexListener = reindexListener;
+    }
+
+    public Executor getActivationExecutor() {
+        return activationExecutor;
+    }
+
+    public void setActivationExecutor(Executor activationExecutor) {
+        this.activationExecutor = activationExecutor;
+    }
+
+    @Override
+    public String toString() {
+        return "EsIndexRebuildOptions{" +
+                "bulkOptions=" + bulkOptions +
+                ", maxFailedDocuments=" + maxFailedDocuments +
+                ", maxNumSegments=" + maxNumSegments +
+                ", defaultReplicas='" + defaultReplicas + '\'' +
+                ", activationStatus=" + activationStatus +
+                ", activationTimeoutMillis=" + activationTimeoutMillis +
+                ", reindexOptions=" + reindexOptions +
+                '}';
+    }
+}
@@ -0,0 +1,275 @@
+package com.github.elasticsearch.dao;
+
+import com.github.elasticsearch.bulk.EsBulkWriter;
+import com.github.elasticsearch.model.AbstractEsDocument;
+import com.github.elasticsearch.model.AbstractEsIndexParam;
+import com.github.elasticsearch.settings.EsIndexProfile;
+import com.github.elasticsearch.settings.EsIndexSettings;
+import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.index.reindex.BulkByScrollResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * alias rotation(_1/_2/_3) 구조의 index 전체 재색인.
+ * 새 index를 {@link EsIndexProfile#BULK_LOAD} 설정(replica 0)으로 생성해 문서를 적재하고, replica가 없는 상태에서 force merge한 뒤
+ * index param의 profile로 replica를 포함한 운영 설정을 복원해 병합된 segment가 replica로 복제되게 한다.
+ * {@link EsIndexRebuildOptions#getActivationStatus()} 상태가 되면 alias를 원자적으로 교체하며, alias 교체 전에 실패하면 새 index를 삭제한다.
+ * 단 {@link EsIndexRebuildOptions#getActivationTimeoutMillis()} 안에 상태가 되지 않은 경우는 적재를 마친 index를 남겨 두고 실패를 반환한다.
+ * mapping만 바뀐 경우 {@link #rebuildFromCurrent(AbstractEsIndexParam)}로 원본 DB 대신 현재 index에서
+ * cluster의 reindex API로 문서를 복사하며, 완료 후 같은 절차로 alias를 교체한다. 이때 발생한 실패는 예외를 던지지 않고 모두 반환한 future로 전달한다.
+ * 재색인 대기는 thread를 점유하지 않지만, 완료 후의 설정 복원·force merge·health 대기는 blocking 호출이므로
+ * {@link EsIndexRebuildOptions#getActivationExecutor()} 또는 지정하지 않으면 작업마다 만드는 전용 thread에서 실행한다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EsIndexRebuilder {
+    public EsIndexRebuilder(AbstractEsDao dao) {
+        this(dao, new EsIndexRebuildOptions());
+    }
+
+    public EsIndexRebuilder(AbstractEsDao dao, EsIndexRebuildOptions options) {
+        assert dao != null && options != null;
+        this.dao = dao;
+        this.options = options;
+    }
+
+    public <T extends AbstractEsDocument> boolean rebuild(AbstractEsIndexParam indexParam, Stream<? extends T> documents) {
+        return rebuild(indexParam, documents, dao.documentCodec());
+    }
+
+    public <T extends AbstractEsDocument> boolean rebuild(AbstractEsIndexParam indexParam,
+                                                          Stream<? extends T> documents,
+                                                          Function<? super T, BytesReference> sourceFunction) {
+        dao.setEsIndexParamInfo(indexParam);
+
+        String alias = indexParam.getAlias();
+        String currentIndex = indexParam.getCurrentIndexName();
+        String newIndex = indexParam.getNewIndexName();
+
+        prepare(alias, newIndex);
+
+        try {
+            if (!createLoadIndex(indexParam, newIndex)) {
+                rollback(alias, newIndex);
+                return false;
+            }
+
+            EsBulkWriter<T> writer = dao.bulkWriter(newIndex, indexParam.getVersionType().orElse(null), sourceFunction,
+                    options.getBulkOptions(), options.getBulkListener());
+
+            try {
+                writer.addAll(documents);
+            } finally {
+                writer.close();
+            }
+
+            logger.info("문서 적재를 완료했습니다. index : {}, submitted : {}, succeeded : {}, failed : {}, retries : {}",
+                    newIndex, writer.getSubmittedCount(), writer.getSucceededCount(), writer.getFailedCount(), writer.getRetryCount());
+
+            if (writer.getFailedCount() > options.getMaxFailedDocuments()
+                    || writer.getSucceededCount() + writer.getFailedCount() < writer.getSubmittedCount()) {
+                logger.error("실패한 문서가 허용치를 넘었거나 완료되지 않은 bulk 요청이 있습니다. index : {}", newIndex);
+                rollback(alias, newIndex);
+                return false;
+            }
+
+            return activate(indexParam, currentIndex, newIndex);
+        } catch (RuntimeException e) {
+            rollback(alias, newIndex, e);
+            throw e;
+        }
+    }
+
+    public CompletableFuture<Boolean> rebuildFromCurrent(AbstractEsIndexParam indexParam) {
+        CompletableFuture<BulkByScrollResponse> reindexed;
+
+        try {
+            reindexed = startReindex(indexParam);
+        } catch (RuntimeException e) {
+            return failed(e);
+        }
+
+        if (reindexed == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        String alias = indexParam.getAlias();
+        String currentIndex = indexParam.getCurrentIndexName();
+        String newIndex = indexParam.getNewIndexName();
+
+        return reindexed.handleAsync((response, e) -> {
+            if (e != null) {
+                RuntimeException failure = new IllegalStateException("재색인에 실패했습니다. index : " + newIndex,
+                        e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                rollback(alias, newIndex, failure);
+                throw failure;
+            }
+
+            try {
+                long failed = response.getBulkFailures().size() + response.getSearchFailures().size();
+
+                if (response.isTimedOut() || response.getReasonCancelled() != null || failed > options.getMaxFailedDocuments()) {
+                    logger.error("재색인이 완료되지 않았거나 실패한 문서가 허용치를 넘었습니다. index : {}, failed : {}, timedOut : {}, cancelled : {}",
+                            newIndex, failed, response.isTimedOut(), response.getReasonCancelled());
+                    rollback(alias, newIndex);
+                    return false;
+                }
+
+                return activate(indexParam, currentIndex, newIndex);
+            } catch (RuntimeException activateException) {
+                rollback(alias, newIndex, activateException);
+                throw activateException;
+            }
+        }, activationExecutor());
+    }
+
+    private CompletableFuture<BulkByScrollResponse> startReindex(AbstractEsIndexParam indexParam) {
+        dao.setEsIndexParamInfo(indexParam);
+
+        String alias = indexParam.getAlias();
+        String currentIndex = indexParam.getCurrentIndexName();
+        String newIndex = indexParam.getNewIndexName();
+
+        if (!dao.hasAlias(currentIndex, alias)) {
+            throw new IllegalStateException("alias가 지정된 현재 index가 없습니다. index : " + currentIndex + ", alias : " + alias);
+        }
+
+        prepare(alias, newIndex);
+
+        try {
+            if (!createLoadIndex(indexParam, newIndex)) {
+                rollback(alias, newIndex);
+                return null;
+            }
+
+            return dao.reindex(currentIndex, newIndex, indexParam.getVersionType().orElse(null),
+                    options.getReindexOptions(), options.getReindexListener()).future();
+        } catch (RuntimeException e) {
+            rollback(alias, newIndex, e);
+            throw e;
+        }
+    }
+
+    private void prepare(String alias, String newIndex) {
+        if (dao.hasAlias(newIndex, alias)) {
+            throw new IllegalStateException("새 index에 이미 alias가 지정되어 있습니다. index : " + newIndex + ", alias : " + alias);
+        }
+
+        if (!dao.deleteIndex(newIndex)) {
+            throw new IllegalStateException("이전에 사용한 index를 삭제하지 못했습니다. index : " + newIndex);
+        }
+    }
+
+    private boolean createLoadIndex(AbstractEsIndexParam indexParam, String newIndex) {
+        if (!dao.createIndex(newIndex, productionSettings(indexParam).put(EsIndexProfile.BULK_LOAD.settings()))) {
+            logger.error("적재용 index 생성에 실패했습니다. index : {}", newIndex);
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean activate(AbstractEsIndexParam indexParam, String currentIndex, String newIndex) {
+        String alias = indexParam.getAlias();
+
+        if (!dao.refreshIndex(newIndex)
+                || !dao.forceMergeIndex(options.getMaxNumSegments(), newIndex)
+                || !dao.updateIndexSettings(productionSettings(indexParam).buildDynamic(), newIndex)) {
+            logger.error("운영 설정 복원에 실패했습니다. index : {}", newIndex);
+            rollback(alias, newIndex);
+            return false;
+        }
+
+        if (!awaitActivationStatus(newIndex)) {
+            return false;
+        }
+
+        boolean switched = dao.hasAlias(currentIndex, alias) ?
+                dao.swapAlias(alias, currentIndex, newIndex) :
+                dao.addAlias(newIndex, alias);
+
+        if (!switched && !dao.hasAlias(newIndex, alias)) {
+            logger.error("alias 교체에 실패했습니다. alias : {}, current : {}, new : {}", alias, currentIndex, newIndex);
+            rollback(alias, newIndex);
+            return false;
+        }
+
+        logger.info("index 재색인을 완료했습니다. alias : {}, {} -> {}", alias, currentIndex, newIndex);
+        return true;
+    }
+
+    private boolean awaitActivationStatus(String newIndex) {
+        TimeValue timeout = TimeValue.timeValueMillis(options.getActivationTimeoutMillis());
+
+        try {
+            if (dao.waitForClusterStatus(options.getActivationStatus(), timeout, newIndex)) {
+                return true;
+            }
+
+            logger.error("{} 안에 index가 {} 상태가 되지 않아 alias를 교체하지 않습니다. 적재를 마친 index는 삭제하지 않습니다. index : {}",
+                    timeout, options.getActivationStatus(), newIndex);
+        } catch (RuntimeException e) {
+            logger.error("index health 대기에 실패해 alias를 교체하지 않습니다. 적재를 마친 index는 삭제하지 않습니다. index : {}", newIndex, e);
+        }
+
+        return false;
+    }
+
+    private void rollback(String alias, String newIndex, RuntimeException cause) {
+        try {
+            rollback(alias, newIndex);
+        } catch (RuntimeException rollbackException) {
+            cause.addSuppressed(rollbackException);
+        }
+    }
+
+    private void rollback(String alias, String newIndex) {
+        if (dao.hasAlias(newIndex, alias)) {
+            logger.warn("alias가 이미 새 index를 가리키고 있어 rollback하지 않습니다. index : {}", newIndex);
+            return;
+        }
+
+        logger.warn("재색인을 rollback합니다. index : {}", newIndex);
+        dao.deleteIndex(newIndex);
+    }
+
+    private static <R> CompletableFuture<R> failed(Throwable e) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    private Executor activationExecutor() {
+        return options.getActivationExecutor() != null ?
+                options.getActivationExecutor() :
+                command -> ACTIVATION_THREAD_FACTORY.newThread(command).start();
+    }
+
+    private EsIndexSettings productionSettings(AbstractEsIndexParam indexParam) {
+        EsIndexSettings indexSettings = EsIndexSettings.of(indexParam);
+
+        if (StringUtils.isBlank(indexParam.getReplicas())) {
+            indexSettings.replicas(options.getDefaultReplicas());
+        }
+
+        return indexSettings;
+    }
+
+    private static final ThreadFactory ACTIVATION_THREAD_FACTORY = EsExecutors.daemonThreadFactory("es-index-rebuild");
+
+    private final AbstractEsDao dao;
+
+    private final EsIndexRebuildOptions options;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+}
@@ -0,0 +1,13 @@
+package com.github.elasticsearch.dao;
+
+import org.elasticsearch.index.reindex.BulkByScrollResponse;
+
+public interface EsReindexListener {
+    EsReindexListener NONE = new EsReindexListener() {};
+
+    default void onProgress(String destIndex, long total, long processed, double docsPerSecond) {}
+
+    default void onCompleted(String destIndex, BulkByScrollResponse response, double docsPerSecond) {}
+
+    default void onFailure(String destIndex, Exception e) {}
+}
@@ -0,0 +1,86 @@
+package com.github.elasticsearch.dao;
+
+@SuppressWarnings("WeakerAccess")
+public class EsReindexOptions {
+    private int slices = 0;
+    private float requestsPerSecond = 0;
+    private int batchSize = 1000;
+    private long progressIntervalMillis = 5000;
+    private long cancelTimeoutMillis = 60_000;
+
+    public EsReindexOptions() {
+    }
+
+    public int getSlices() {
+        return slices;
+    }
+
+    public void setSlices(int slices) {
+        this.slices = slices;
+    }
+
+    public float getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(float requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getProgressIntervalMillis() {
+        return progressIntervalMillis;
+    }
+
+    public void setProgressIntervalMillis(long progressIntervalMillis) {
+        this.progressIntervalMillis = progressIntervalMillis;
+    }
+
+    public long getCancelTimeoutMillis() {
+        return cancelTimeoutMillis;
+    }
+
+    public void setCancelTimeoutMillis(long cancelTimeoutMillis) {
+        this.cancelTimeoutMillis = cancelTimeoutMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "EsReindexOptions{" +
+                "slices=" + slices +
+                ", requestsPerSecond=" + requestsPerSecond +
+                ", batchSize=" + batchSize +
+                ", progressIntervalMillis=" + progressIntervalMillis +
+                ", cancelTimeoutMillis=" + cancelTimeoutMillis +
+                '}';
+    }
+
+    void validate() {
+        if (slices < 0) {
+            throw new IllegalStateException("slices는 0 이상이어야 합니다. 0이면 shard 수에 맞춰 자동으로 나눕니다.");
+        }
+
+        if (requestsPerSecond < 0) {
+            throw new IllegalStateException("requestsPerSecond는 0 이상이어야 합니다. 0이면 제한하지 않습니다.");
+        }
+
+        if (batchSize <= 0) {
+            throw new IllegalStateException("batchSize는 0보다 커야 합니다.");
+        }
+
+        if (progressIntervalMillis <= 0) {
+            throw new IllegalStateException("progressIntervalMillis는 0보다 커야 합니다.");
+        }
+
+        if (cancelTimeoutMillis < 0) {
+            throw new IllegalStateException("cancelTimeoutMillis는 0 이상이어야 합니다.");
+        }
+    }
+}
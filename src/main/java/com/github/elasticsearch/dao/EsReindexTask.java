@@ -0,0 +1,308 @@
+package com.github.elasticsearch.dao;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.cluster.node.tasks.list.ListTasksResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.VersionType;
+import org.elasticsearch.index.reindex.AbstractBulkByScrollRequest;
+import org.elasticsearch.index.reindex.BulkByScrollResponse;
+import org.elasticsearch.index.reindex.BulkByScrollTask;
+import org.elasticsearch.index.reindex.ReindexAction;
+import org.elasticsearch.index.reindex.ReindexRequest;
+import org.elasticsearch.tasks.TaskId;
+import org.elasticsearch.tasks.TaskInfo;
+import org.elasticsearch.threadpool.Scheduler;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * cluster의 reindex API로 source index의 문서를 dest index로 복사하는 server side 재색인 작업.
+ * slice 수를 지정하지 않으면 source shard 수에 맞춰 자동으로 나누고, requestsPerSecond로 처리량을 제한한다.
+ * 진행 상황은 client thread pool의 timer에서 task 목록을 비동기로 조회해 갱신하므로 대기하는 thread가 없고,
+ * 결과는 GENERIC thread pool에서 {@link #future()}로 전달된다.
+ * 요청이 transport 오류로 실패해도 cluster의 task는 계속 실행될 수 있으므로, task를 취소하고 목록에서 사라진 것을 확인한 뒤에 실패를 전달한다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EsReindexTask {
+    EsReindexTask(Client client,
+                  String sourceIndex,
+                  String destIndex,
+                  VersionType versionType,
+                  EsReindexOptions options,
+                  EsReindexListener listener) {
+        assert client != null && sourceIndex != null && destIndex != null && options != null && listener != null;
+        options.validate();
+
+        this.client = client;
+        this.destIndex = destIndex;
+        this.options = options;
+        this.listener = listener;
+        this.request = new ReindexRequest()
+                .setSourceIndices(sourceIndex)
+                .setDestIndex(destIndex)
+                .setSourceBatchSize(options.getBatchSize())
+                .setSlices(options.getSlices() > 0 ? options.getSlices() : AbstractBulkByScrollRequest.AUTO_SLICES)
+                .setRequestsPerSecond(options.getRequestsPerSecond() > 0 ? options.getRequestsPerSecond() : Float.POSITIVE_INFINITY);
+
+        if (versionType != null) {
+            request.setDestVersionType(versionType);
+        }
+    }
+
+    EsReindexTask start() {
+        startNanos = System.nanoTime();
+        lastPollNanos = startNanos;
+
+        polling = client.threadPool().scheduleWithFixedDelay(this::poll,
+                TimeValue.timeValueMillis(options.getProgressIntervalMillis()), ThreadPool.Names.GENERIC);
+
+        logger.info("재색인을 시작합니다. {}, options : {}", request.getDescription(), options);
+
+        try {
+            client.execute(ReindexAction.INSTANCE, request, ActionListener.wrap(this::onResponse, this::onFailure));
+        } catch (Exception e) {
+            onFailure(e);
+        }
+
+        return this;
+    }
+
+    public CompletableFuture<BulkByScrollResponse> future() {
+        return future;
+    }
+
+    public void cancel() {
+        cancelRequested = true;
+
+        TaskId id = taskId;
+
+        if (id != null) {
+            sendCancel(id);
+        }
+    }
+
+    public String getDestIndex() {
+        return destIndex;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public double getDocsPerSecond() {
+        return docsPerSecond;
+    }
+
+    private void poll() {
+        if (future.isDone()) {
+            return;
+        }
+
+        client.admin().cluster().prepareListTasks()
+                .setActions(ReindexAction.NAME)
+                .setDetailed(true)
+                .execute(ActionListener.wrap(this::onTasks, e -> logger.warn("재색인 진행 상황 조회에 실패했습니다. index : {}", destIndex, e)));
+    }
+
+    private void onTasks(ListTasksResponse response) {
+        TaskInfo taskInfo = findTask(response);
+
+        if (taskInfo == null) {
+            return;
+        }
+
+        if (taskId == null) {
+            taskId = taskInfo.getTaskId();
+
+            if (cancelRequested) {
+                sendCancel(taskId);
+            }
+        }
+
+        update((BulkByScrollTask.Status) taskInfo.getStatus());
+    }
+
+    private TaskInfo findTask(ListTasksResponse response) {
+        String target = "to [" + destIndex + "]";
+
+        for (TaskInfo taskInfo : response.getTasks()) {
+            if (taskInfo.getParentTaskId().isSet()
+                    || taskInfo.getDescription() == null
+                    || !taskInfo.getDescription().contains(target)
+                    || !(taskInfo.getStatus() instanceof BulkByScrollTask.Status)) {
+                continue;
+            }
+
+            if (taskId == null || taskId.equals(taskInfo.getTaskId())) {
+                return taskInfo;
+            }
+        }
+
+        return null;
+    }
+
+    private synchronized void update(BulkByScrollTask.Status status) {
+        if (future.isDone()) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long current = processed(status);
+
+        docsPerSecond = now > lastPollNanos ? (current - processed) * 1_000_000_000d / (now - lastPollNanos) : 0;
+        total = status.getTotal();
+        processed = current;
+        lastPollNanos = now;
+
+        logger.info("재색인 진행 중입니다. index : {}, processed : {} / {}, docs/sec : {}",
+                destIndex, current, total, String.format("%.1f", docsPerSecond));
+
+        try {
+            listener.onProgress(destIndex, total, current, docsPerSecond);
+        } catch (Exception e) {
+            logger.error("EsReindexListener.onProgress 처리 중 오류가 발생했습니다.", e);
+        }
+    }
+
+    private void onResponse(BulkByScrollResponse response) {
+        stopPolling();
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        synchronized (this) {
+            total = response.getTotal();
+            processed = processed(response.getStatus());
+            docsPerSecond = elapsedNanos > 0 ? processed * 1_000_000_000d / elapsedNanos : 0;
+        }
+
+        logger.info("재색인을 완료했습니다. index : {}, total : {}, created : {}, updated : {}, versionConflicts : {}, " +
+                        "bulkFailures : {}, searchFailures : {}, timedOut : {}, took : {}, docs/sec : {}",
+                destIndex, response.getTotal(), response.getCreated(), response.getUpdated(), response.getVersionConflicts(),
+                response.getBulkFailures().size(), response.getSearchFailures().size(), response.isTimedOut(),
+                response.getTook(), String.format("%.1f", docsPerSecond));
+
+        try {
+            listener.onCompleted(destIndex, response, docsPerSecond);
+        } catch (Exception e) {
+            logger.error("EsReindexListener.onCompleted 처리 중 오류가 발생했습니다.", e);
+        }
+
+        client.threadPool().generic().execute(() -> future.complete(response));
+    }
+
+    private void onFailure(Exception e) {
+        stopPolling();
+        logger.error("재색인에 실패했습니다. index : {}", destIndex, e);
+
+        try {
+            listener.onFailure(destIndex, e);
+        } catch (Exception listenerException) {
+            logger.error("EsReindexListener.onFailure 처리 중 오류가 발생했습니다.", listenerException);
+        }
+
+        cancelRequested = true;
+        awaitTermination(e, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.getCancelTimeoutMillis()), false);
+    }
+
+    private void awaitTermination(Exception failure, long deadlineNanos, boolean cancelSent) {
+        try {
+            client.admin().cluster().prepareListTasks()
+                    .setActions(ReindexAction.NAME)
+                    .setDetailed(true)
+                    .execute(ActionListener.wrap(
+                            response -> onTerminationCheck(failure, deadlineNanos, cancelSent, findTask(response), null),
+                            e -> onTerminationCheck(failure, deadlineNanos, cancelSent, null, e)));
+        } catch (Exception e) {
+            onTerminationCheck(failure, deadlineNanos, cancelSent, null, e);
+        }
+    }
+
+    private void onTerminationCheck(Exception failure, long deadlineNanos, boolean cancelSent, TaskInfo running, Exception checkFailure) {
+        if (running == null && checkFailure == null) {
+            client.threadPool().generic().execute(() -> future.completeExceptionally(failure));
+            return;
+        }
+
+        if (System.nanoTime() - deadlineNanos >= 0) {
+            logger.error("재색인 task가 종료되었는지 확인하지 못했습니다. index : {}, task : {}", destIndex, taskId);
+            failure.addSuppressed(checkFailure != null ?
+                    checkFailure :
+                    new IllegalStateException("재색인 task가 취소 후에도 실행 중입니다. task : " + running.getTaskId()));
+            client.threadPool().generic().execute(() -> future.completeExceptionally(failure));
+            return;
+        }
+
+        boolean sent = cancelSent;
+
+        if (running != null && !cancelSent) {
+            taskId = running.getTaskId();
+            sendCancel(taskId);
+            sent = true;
+        }
+
+        boolean nextCancelSent = sent;
+        client.threadPool().schedule(() -> awaitTermination(failure, deadlineNanos, nextCancelSent),
+                TimeValue.timeValueMillis(Math.min(options.getProgressIntervalMillis(), TERMINATION_CHECK_INTERVAL_MILLIS)), ThreadPool.Names.GENERIC);
+    }
+
+    private void sendCancel(TaskId id) {
+        client.admin().cluster().prepareCancelTasks()
+                .setTaskId(id)
+                .execute(ActionListener.wrap(
+                        response -> logger.warn("재색인을 취소했습니다. index : {}, task : {}", destIndex, id),
+                        e -> logger.error("재색인 취소에 실패했습니다. index : {}, task : {}", destIndex, id, e)));
+    }
+
+    private void stopPolling() {
+        Scheduler.Cancellable cancellable = polling;
+
+        if (cancellable != null) {
+            cancellable.cancel();
+        }
+    }
+
+    private static long processed(BulkByScrollTask.Status status) {
+        return status.getCreated() + status.getUpdated() + status.getDeleted() + status.getNoops() + status.getVersionConflicts();
+    }
+
+    private static final long TERMINATION_CHECK_INTERVAL_MILLIS = 1000;
+
+    private final Client client;
+
+    private final String destIndex;
+
+    private final EsReindexOptions options;
+
+    private final EsReindexListener listener;
+
+    private final ReindexRequest request;
+
+    private final CompletableFuture<BulkByScrollResponse> future = new CompletableFuture<>();
+
+    private volatile Scheduler.Cancellable polling;
+
+    private volatile TaskId taskId;
+
+    private volatile boolean cancelRequested;
+
+    private volatile long total;
+
+    private volatile long processed;
+
+    private volatile double docsPerSecond;
+
+    private long startNanos;
+
+    private long lastPollNanos;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+}
@@ -0,0 +1,74 @@
+package com.github.elasticsearch.dao;
+
+@SuppressWarnings("WeakerAccess")
+public class EsRolloverOptions {
+    private long maxPrimarySizeInBytes = 50L * 1024 * 1024 * 1024;
+    private long maxDocs = 0;
+    private long maxAgeMillis = 0;
+    private int maxGenerations = 0;
+    private long retentionMillis = 0;
+
+    public EsRolloverOptions() {
+    }
+
+    public long getMaxPrimarySizeInBytes() {
+        return maxPrimarySizeInBytes;
+    }
+
+    public void setMaxPrimarySizeInBytes(long maxPrimarySizeInBytes) {
+        this.maxPrimarySizeInBytes = maxPrimarySizeInBytes;
+    }
+
+    public long getMaxDocs() {
+        return maxDocs;
+    }
+
+    public void setMaxDocs(long maxDocs) {
+        this.maxDocs = maxDocs;
+    }
+
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    public void setMaxAgeMillis(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    public int getMaxGenerations() {
+        return maxGenerations;
+    }
+
+    public void setMaxGenerations(int maxGenerations) {
+        this.maxGenerations = maxGenerations;
+    }
+
+    public long getRetentionMillis() {
+        return retentionMillis;
+    }
+
+    public void setRetentionMillis(long retentionMillis) {
+        this.retentionMillis = retentionMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "EsRolloverOptions{" +
+                "maxPrimarySizeInBytes=" + maxPrimarySizeInBytes +
+                ", maxDocs=" + maxDocs +
+                ", maxAgeMillis=" + maxAgeMillis +
+                ", maxGenerations=" + maxGenerations +
+                ", retentionMillis=" + retentionMillis +
+                '}';
+    }
+
+    void validate() {
+        if (maxPrimarySizeInBytes <= 0 && maxDocs <= 0 && maxAgeMillis <= 0) {
+            throw new IllegalStateException("maxPrimarySizeInBytes, maxDocs, maxAgeMillis 중 하나 이상은 0보다 커야 합니다.");
+        }
+
+        if (maxGenerations < 0) {
+            throw new IllegalStateException("maxGenerations는 0 이상이어야 합니다.");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.elasticsearch.dao;
+
+import com.github.elasticsearch.bulk.EsBulkListener;
+import com.github.elasticsearch.client.QueryResultCache;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+
+import java.util.function.LongSupplier;
+
+class QueryCacheInvalidatingListener implements EsBulkListener {
+    QueryCacheInvalidatingListener(QueryResultCache queryCache, String index, LongSupplier refreshIntervalMillis, EsBulkListener listener) {
+        this.queryCache = queryCache;
+        this.index = index;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.listener = listener;
+    }
+
+    @Override
+    public void beforeBulk(long executionId, int numberOfActions) {
+        listener.beforeBulk(executionId, numberOfActions);
+    }
+
+    @Override
+    public void afterBulk(long executionId, int numberOfActions, long tookInMillis) {
+        queryCache.invalidate(refreshIntervalMillis.getAsLong(), index);
+        listener.afterBulk(executionId, numberOfActions, tookInMillis);
+    }
+
+    @Override
+    public void onItemFailure(long executionId, BulkItemResponse.Failure failure) {
+        listener.onItemFailure(executionId, failure);
+    }
+
+    @Override
+    public void onBulkFailure(long executionId, int numberOfActions, Throwable cause) {
+        queryCache.invalidate(refreshIntervalMillis.getAsLong(), index);
+        listener.onBulkFailure(executionId, numberOfActions, cause);
+    }
+
+    @Override
+    public void onRetry() {
+        listener.onRetry();
+    }
+
+    @Override
+    public void onSpooled(long executionId, int numberOfActions) {
+        listener.onSpooled(executionId, numberOfActions);
+    }
+
+    private final QueryResultCache queryCache;
+
+    private final String index;
+
+    private final LongSupplier refreshIntervalMillis;
+
+    private final EsBulkListener listener;
+}
@@ -0,0 +1,43 @@
+package com.github.elasticsearch.metrics;
+
+@SuppressWarnings("WeakerAccess")
+public class EsConnectionState {
+    public static final EsConnectionState CLOSED = new EsConnectionState(0, 0, 0);
+
+    public EsConnectionState(int listedNodes, int connectedNodes, int filteredNodes) {
+        this.listedNodes = listedNodes;
+        this.connectedNodes = connectedNodes;
+        this.filteredNodes = filteredNodes;
+    }
+
+    public int getListedNodes() {
+        return listedNodes;
+    }
+
+    public int getConnectedNodes() {
+        return connectedNodes;
+    }
+
+    public int getFilteredNodes() {
+        return filteredNodes;
+    }
+
+    public boolean isConnected() {
+        return connectedNodes > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "EsConnectionState{" +
+                "listedNodes=" + listedNodes +
+                ", connectedNodes=" + connectedNodes +
+                ", filteredNodes=" + filteredNodes +
+                '}';
+    }
+
+    private final int listedNodes;
+
+    private final int connectedNodes;
+
+    private final int filteredNodes;
+}
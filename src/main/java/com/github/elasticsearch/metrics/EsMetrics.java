@@ -0,0 +1,17 @@
+package com.github.elasticsearch.metrics;
+
+import java.util.function.Supplier;
+
+public interface EsMetrics {
+    EsMetrics NONE = new EsMetrics() {};
+
+    default boolean isEnabled() {
+        return false;
+    }
+
+    default void record(String operation, long elapsedNanos, EsOperationOutcome outcome) {}
+
+    default void recordCollapsed(String operation) {}
+
+    default void bindConnectionState(Supplier<EsConnectionState> connectionState) {}
+}
@@ -0,0 +1,35 @@
+package com.github.elasticsearch.metrics;
+
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.cluster.metadata.ProcessClusterEventTimeoutException;
+import org.elasticsearch.transport.ReceiveTimeoutTransportException;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+public enum EsOperationOutcome {
+    SUCCESS,
+    FAILURE,
+    TIMEOUT;
+
+    public static EsOperationOutcome of(Throwable e) {
+        Throwable cause = e;
+
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        cause = ExceptionsHelper.unwrapCause(cause);
+
+        if (cause instanceof ElasticsearchTimeoutException
+                || cause instanceof ReceiveTimeoutTransportException
+                || cause instanceof ProcessClusterEventTimeoutException
+                || cause instanceof TimeoutException) {
+            return TIMEOUT;
+        }
+
+        return FAILURE;
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.elasticsearch.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+@SuppressWarnings("WeakerAccess")
+public class EsOperationStats {
+    EsOperationStats(String operation, long count, long errors, long timeouts, long collapsed, long totalNanos,
+                     long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+        this.operation = operation;
+        this.count = count;
+        this.errors = errors;
+        this.timeouts = timeouts;
+        this.collapsed = collapsed;
+        this.totalNanos = totalNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getCollapsed() {
+        return collapsed;
+    }
+
+    public double getCollapseRate() {
+        return count == 0 ? 0.0 : (double) collapsed / count;
+    }
+
+    public long getMeanNanos() {
+        return count == 0 ? 0L : totalNanos / count;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public double getThroughputPerSecond(long elapsedNanos) {
+        return elapsedNanos <= 0 ? 0.0 : count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "EsOperationStats{" +
+                "operation='" + operation + '\'' +
+                ", count=" + count +
+                ", errors=" + errors +
+                ", timeouts=" + timeouts +
+                ", collapsed=" + collapsed +
+                ", meanMicros=" + TimeUnit.NANOSECONDS.toMicros(getMeanNanos()) +
+                ", p50Micros=" + TimeUnit.NANOSECONDS.toMicros(p50Nanos) +
+                ", p90Micros=" + TimeUnit.NANOSECONDS.toMicros(p90Nanos) +
+                ", p99Micros=" + TimeUnit.NANOSECONDS.toMicros(p99Nanos) +
+                ", maxMicros=" + TimeUnit.NANOSECONDS.toMicros(maxNanos) +
+                '}';
+    }
+
+    private final String operation;
+
+    private final long count;
+
+    private final long errors;
+
+    private final long timeouts;
+
+    private final long collapsed;
+
+    private final long totalNanos;
+
+    private final long p50Nanos;
+
+    private final long p90Nanos;
+
+    private final long p99Nanos;
+
+    private final long maxNanos;
+}
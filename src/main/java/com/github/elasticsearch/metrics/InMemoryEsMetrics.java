@@ -0,0 +1,93 @@
+package com.github.elasticsearch.metrics;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 작업 이름별 호출 수, 오류 수, timeout 수와 latency histogram을 JVM 안에 누적하는 {@link EsMetrics} 구현.
+ * {@link #getStats()}로 얻은 snapshot을 로그나 외부 metric 시스템으로 내보낸다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class InMemoryEsMetrics implements EsMetrics {
+    public InMemoryEsMetrics() {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void record(String operation, long elapsedNanos, EsOperationOutcome outcome) {
+        Operation stats = operation(operation);
+
+        stats.histogram.record(elapsedNanos);
+
+        if (outcome == EsOperationOutcome.FAILURE) {
+            stats.errors.increment();
+        } else if (outcome == EsOperationOutcome.TIMEOUT) {
+            stats.timeouts.increment();
+        }
+    }
+
+    @Override
+    public void recordCollapsed(String operation) {
+        operation(operation).collapsed.increment();
+    }
+
+    @Override
+    public void bindConnectionState(Supplier<EsConnectionState> connectionState) {
+        this.connectionState = connectionState;
+    }
+
+    public Optional<EsOperationStats> getStats(String operation) {
+        Operation stats = operations.get(operation);
+        return stats == null ? Optional.empty() : Optional.of(stats.snapshot(operation));
+    }
+
+    public Map<String, EsOperationStats> getStats() {
+        Map<String, EsOperationStats> snapshot = new TreeMap<>();
+
+        operations.forEach((operation, stats) -> snapshot.put(operation, stats.snapshot(operation)));
+
+        return snapshot;
+    }
+
+    public EsConnectionState getConnectionState() {
+        Supplier<EsConnectionState> supplier = connectionState;
+        return supplier == null ? EsConnectionState.CLOSED : supplier.get();
+    }
+
+    public void reset() {
+        operations.clear();
+    }
+
+    private Operation operation(String operation) {
+        Operation stats = operations.get(operation);
+        return stats != null ? stats : operations.computeIfAbsent(operation, key -> new Operation());
+    }
+
+    private static class Operation {
+        private EsOperationStats snapshot(String operation) {
+            return new EsOperationStats(operation, histogram.count(), errors.sum(), timeouts.sum(), collapsed.sum(), histogram.totalNanos(),
+                    histogram.percentileNanos(50.0), histogram.percentileNanos(90.0), histogram.percentileNanos(99.0),
+                    histogram.maxNanos());
+        }
+
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private final LongAdder errors = new LongAdder();
+
+        private final LongAdder timeouts = new LongAdder();
+
+        private final LongAdder collapsed = new LongAdder();
+    }
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    private volatile Supplier<EsConnectionState> connectionState;
+}
@@ -3,6 +3,7 @@ package com.github.elasticsearch.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import org.elasticsearch.index.seqno.SequenceNumbers;
 
 import java.io.Serializable;
 import java.util.Optional;
@@ -20,6 +21,12 @@ public abstract class AbstractEsDocument implements Serializable {
     @JsonIgnore
     private long version = -1;
 
+    @JsonIgnore
+    private long seqNo = SequenceNumbers.UNASSIGNED_SEQ_NO;
+
+    @JsonIgnore
+    private long primaryTerm = SequenceNumbers.UNASSIGNED_PRIMARY_TERM;
+
     public String getId() {
         return id;
     }
@@ -44,6 +51,22 @@ public abstract class AbstractEsDocument implements Serializable {
         this.version = version;
     }
 
+    public final long getSeqNo() {
+        return seqNo;
+    }
+
+    public final void setSeqNo(long seqNo) {
+        this.seqNo = seqNo;
+    }
+
+    public final long getPrimaryTerm() {
+        return primaryTerm;
+    }
+
+    public final void setPrimaryTerm(long primaryTerm) {
+        this.primaryTerm = primaryTerm;
+    }
+
     public void postProcessAfterCreated() {}
 
     @JsonIgnore
@@ -1,12 +1,16 @@
 package com.github.elasticsearch.model;
 
+import com.github.elasticsearch.settings.EsIndexProfile;
 import org.elasticsearch.index.VersionType;
 
 import java.util.Optional;
+import java.util.OptionalInt;
 
 public class AbstractEsIndexParam implements IAbstractEsIndexParam {
     private static final String TYPE = "_doc";
 
+    private static final String WRITE_ALIAS_SUFFIX = "_write";
+
     private final String alias;
 
     private final String shards;
@@ -23,6 +27,8 @@ public class AbstractEsIndexParam implements IAbstractEsIndexParam {
 
     private VersionType versionType;
 
+    private EsIndexProfile profile = EsIndexProfile.DEFAULT;
+
     private boolean useCurrentIndexName;
 
     private boolean useIndexBackup;
@@ -59,6 +65,31 @@ public class AbstractEsIndexParam implements IAbstractEsIndexParam {
         return alias;
     }
 
+    @Override
+    public String getWriteAlias() {
+        return alias + WRITE_ALIAS_SUFFIX;
+    }
+
+    @Override
+    public String getGenerationIndexName(int generation) {
+        return String.format("%s_%06d", alias, generation);
+    }
+
+    @Override
+    public OptionalInt getIndexNo(String indexName) {
+        if (indexName == null || !indexName.startsWith(alias + "_")) {
+            return OptionalInt.empty();
+        }
+
+        String indexNo = indexName.substring(alias.length() + 1);
+
+        if (indexNo.isEmpty() || indexNo.length() > 9 || !indexNo.chars().allMatch(Character::isDigit)) {
+            return OptionalInt.empty();
+        }
+
+        return OptionalInt.of(Integer.parseInt(indexNo));
+    }
+
     @Override
     public String getCurrentIndexName() { return currentIndexName; }
 
@@ -91,6 +122,12 @@ public class AbstractEsIndexParam implements IAbstractEsIndexParam {
         this.versionType = versionType;
     }
 
+    @Override
+    public EsIndexProfile getProfile() { return profile; }
+
+    @Override
+    public void setProfile(EsIndexProfile profile) { this.profile = profile; }
+
     @Override
     public boolean getUseCurrentIndexName() { return useCurrentIndexName; }
 
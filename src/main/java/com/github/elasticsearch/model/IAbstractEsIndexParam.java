@@ -1,14 +1,19 @@
 package com.github.elasticsearch.model;
 
+import com.github.elasticsearch.settings.EsIndexProfile;
 import org.elasticsearch.index.VersionType;
 
 import java.util.Optional;
+import java.util.OptionalInt;
 
 public interface IAbstractEsIndexParam {
     String getTypeName();
     String getShards();
     String getReplicas();
     String getAlias();
+    String getWriteAlias();
+    String getGenerationIndexName(int generation);
+    OptionalInt getIndexNo(String indexName);
     String getCurrentIndexName();
     void setCurrentIndexName(String currentIndexName);
     String getNewIndexName();
@@ -19,6 +24,8 @@ public interface IAbstractEsIndexParam {
     void setSettingsJsonString(String settingsJsonString);
     Optional<VersionType> getVersionType();
     void setVersionType(VersionType versionType);
+    EsIndexProfile getProfile();
+    void setProfile(EsIndexProfile profile);
     boolean getUseCurrentIndexName();
     void setUseCurrentIndexName(boolean useCurrentIndexName);
     boolean getUseIndexBackup();
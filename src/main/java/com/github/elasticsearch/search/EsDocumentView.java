@@ -0,0 +1,110 @@
+package com.github.elasticsearch.search;
+
+import com.github.elasticsearch.codec.EsDocumentCodec;
+import com.github.elasticsearch.model.AbstractEsDocument;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.document.DocumentField;
+import org.elasticsearch.search.SearchHit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 검색 hit 하나에 대한 지연 조회 view.
+ * field는 처음 접근할 때 docvalue field에서, 없으면 원본 _source bytes에서 해당 값만 읽어 변환하고 결과를 보관한다.
+ * 문서 전체가 필요하면 {@link #materialize(Class)}로 만들며, 이는 {@link EsProjection#full()}로 조회한 hit에서만 가능하다. 한 thread에서 사용하는 것을 전제로 한다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EsDocumentView {
+    private EsDocumentView(SearchHit hit, EsDocumentCodec documentCodec, boolean fullSource) {
+        this.hit = hit;
+        this.documentCodec = documentCodec;
+        this.fullSource = fullSource;
+    }
+
+    public static EsDocumentView of(SearchHit hit, EsDocumentCodec documentCodec, EsProjection projection) {
+        assert hit != null && documentCodec != null && projection != null;
+        return new EsDocumentView(hit, documentCodec, projection.isFullSource());
+    }
+
+    public String getId() {
+        return hit.getId();
+    }
+
+    public long getVersion() {
+        return hit.getVersion();
+    }
+
+    public long getSeqNo() {
+        return hit.getSeqNo();
+    }
+
+    public long getPrimaryTerm() {
+        return hit.getPrimaryTerm();
+    }
+
+    public float getScore() {
+        return hit.getScore();
+    }
+
+    public Optional<Object> get(String field) {
+        return get(field, Object.class);
+    }
+
+    public <V> Optional<V> get(String field, Class<V> type) {
+        Object value = values.get(field);
+
+        if (value == null || value != MISSING && !type.isInstance(value)) {
+            value = read(field, type);
+            values.put(field, value);
+        }
+
+        return value == MISSING ? Optional.empty() : Optional.of(type.cast(value));
+    }
+
+    public String getString(String field) {
+        return get(field, String.class).orElse(null);
+    }
+
+    public BytesReference getSourceRef() {
+        return hit.getSourceRef();
+    }
+
+    public <T extends AbstractEsDocument> T materialize(Class<T> type) {
+        if (!fullSource || hit.getSourceRef() == null) {
+            throw new IllegalStateException("_source 전체를 조회하지 않은 hit입니다. EsProjection.full()로 조회해야 합니다. id : " + hit.getId());
+        }
+
+        return documentCodec.fromSearchHit(hit, type);
+    }
+
+    @Override
+    public String toString() {
+        return "EsDocumentView{" +
+                "id='" + hit.getId() + '\'' +
+                ", decoded=" + values.keySet() +
+                '}';
+    }
+
+    private Object read(String field, Class<?> type) {
+        DocumentField documentField = hit.field(field);
+
+        if (documentField != null && documentField.getValue() != null) {
+            return documentCodec.convertValue(documentField.getValues().size() == 1 ? documentField.getValue() : documentField.getValues(), type);
+        }
+
+        Optional<?> value = documentCodec.readField(hit.getSourceRef(), field, type);
+        return value.isPresent() ? value.get() : MISSING;
+    }
+
+    private static final Object MISSING = new Object();
+
+    private final SearchHit hit;
+
+    private final EsDocumentCodec documentCodec;
+
+    private final boolean fullSource;
+
+    private final Map<String, Object> values = new HashMap<>(4);
+}
@@ -0,0 +1,64 @@
+package com.github.elasticsearch.search;
+
+@SuppressWarnings("WeakerAccess")
+public class EsGetBatchOptions {
+    private int maxBatchSize = 100;
+    private long windowMillis = 2L;
+    private boolean realtime = true;
+    private long timeoutMillis = 10_000L;
+
+    public EsGetBatchOptions() {
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public void setWindowMillis(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public boolean isRealtime() {
+        return realtime;
+    }
+
+    public void setRealtime(boolean realtime) {
+        this.realtime = realtime;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public void setTimeoutMillis(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "EsGetBatchOptions{" +
+                "maxBatchSize=" + maxBatchSize +
+                ", windowMillis=" + windowMillis +
+                ", realtime=" + realtime +
+                ", timeoutMillis=" + timeoutMillis +
+                '}';
+    }
+
+    void validate() {
+        if (maxBatchSize <= 0) {
+            throw new IllegalStateException("maxBatchSize는 0보다 커야 합니다. maxBatchSize : " + maxBatchSize);
+        }
+
+        if (windowMillis < 0) {
+            throw new IllegalStateException("windowMillis는 0 이상이어야 합니다. windowMillis : " + windowMillis);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.github.elasticsearch.search;
+
+import com.github.elasticsearch.codec.EsDocumentCodec;
+import com.github.elasticsearch.model.AbstractEsDocument;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * id 단건 조회를 모아 multi-get 한 번으로 보내는 batcher.
+ * 첫 조회가 들어온 뒤 windowMillis가 지나거나 maxBatchSize만큼 모이면 전송하고,
+ * 응답의 각 문서를 호출별로 따로 변환해 id, version을 채워 돌려준다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EsGetBatcher<T extends AbstractEsDocument> {
+    public EsGetBatcher(Client client, String index, Class<T> type, EsDocumentCodec documentCodec, EsGetBatchOptions options) {
+        assert client != null && index != null && type != null && documentCodec != null;
+        options.validate();
+
+        this.client = client;
+        this.index = index;
+        this.type = type;
+        this.documentCodec = documentCodec;
+        this.options = options;
+    }
+
+    public Optional<T> get(String id) {
+        try {
+            return getAsync(id).get(options.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ElasticsearchException(e);
+        } catch (TimeoutException e) {
+            throw new ElasticsearchTimeoutException("{}ms 안에 문서를 조회하지 못했습니다. index : {}, id : {}",
+                    options.getTimeoutMillis(), index, id);
+        } catch (java.util.concurrent.ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new ElasticsearchException(e.getCause());
+        }
+    }
+
+    public CompletableFuture<Optional<T>> getAsync(String id) {
+        assert id != null;
+
+        CompletableFuture<Optional<T>> future = new CompletableFuture<>();
+        List<Pending> batch = null;
+        boolean first;
+
+        synchronized (this) {
+            first = pending.isEmpty();
+            pending.add(new Pending(id, future));
+
+            if (pending.size() >= options.getMaxBatchSize()) {
+                batch = drain();
+            }
+        }
+
+        if (batch != null) {
+            send(batch);
+        } else if (first) {
+            if (options.getWindowMillis() == 0) {
+                flush();
+            } else {
+                client.threadPool().schedule(this::flush, TimeValue.timeValueMillis(options.getWindowMillis()), ThreadPool.Names.SAME);
+            }
+        }
+
+        return future;
+    }
+
+    public void flush() {
+        List<Pending> batch;
+
+        synchronized (this) {
+            batch = drain();
+        }
+
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    private List<Pending> drain() {
+        List<Pending> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void send(List<Pending> batch) {
+        Map<String, List<Pending>> pendingById = new LinkedHashMap<>();
+
+        for (Pending request : batch) {
+            pendingById.computeIfAbsent(request.id, key -> new ArrayList<>(1)).add(request);
+        }
+
+        MultiGetRequest request = new MultiGetRequest().realtime(options.isRealtime());
+        pendingById.keySet().forEach(id -> request.add(index, id));
+
+        try {
+            client.multiGet(request, ActionListener.wrap(response -> complete(response, pendingById), e -> fail(batch, e)));
+        } catch (Exception e) {
+            fail(batch, e);
+        }
+    }
+
+    private void complete(MultiGetResponse response, Map<String, List<Pending>> pendingById) {
+        for (MultiGetItemResponse item : response.getResponses()) {
+            List<Pending> requests = pendingById.remove(item.getId());
+
+            if (requests == null) {
+                continue;
+            }
+
+            for (Pending request : requests) {
+                if (item.isFailed()) {
+                    request.future.completeExceptionally(item.getFailure().getFailure());
+                    continue;
+                }
+
+                try {
+                    request.future.complete(documentCodec.fromGetResponse(item.getResponse(), type));
+                } catch (RuntimeException e) {
+                    request.future.completeExceptionally(e);
+                }
+            }
+        }
+
+        pendingById.values().forEach(requests -> requests.forEach(request -> request.future.complete(Optional.empty())));
+    }
+
+    private void fail(List<Pending> batch, Exception e) {
+        batch.forEach(request -> request.future.completeExceptionally(e instanceof CompletionException ? e.getCause() : e));
+    }
+
+    private class Pending {
+        private Pending(String id, CompletableFuture<Optional<T>> future) {
+            this.id = id;
+            this.future = future;
+        }
+
+        private final String id;
+
+        private final CompletableFuture<Optional<T>> future;
+    }
+
+    private final Client client;
+
+    private final String index;
+
+    private final Class<T> type;
+
+    private final EsDocumentCodec documentCodec;
+
+    private final EsGetBatchOptions options;
+
+    private List<Pending> pending = new ArrayList<>();
+}
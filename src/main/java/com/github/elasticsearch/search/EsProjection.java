@@ -0,0 +1,82 @@
+package com.github.elasticsearch.search;
+
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 조회 결과에서 필요한 field만 가져오도록 요청에 source includes와 docvalue fields를 지정한다.
+ * {@link #full()}은 _source 전체를 가져와 {@link EsDocumentView#materialize(Class)}로 문서 전체를 만들 수 있게 한다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EsProjection {
+    private EsProjection(boolean fullSource) {
+        this.fullSource = fullSource;
+    }
+
+    public static EsProjection of(String... sourceFields) {
+        return new EsProjection(false).source(sourceFields);
+    }
+
+    public static EsProjection full() {
+        return new EsProjection(true);
+    }
+
+    public EsProjection source(String... fields) {
+        sourceFields.addAll(Arrays.asList(fields));
+        return this;
+    }
+
+    public EsProjection docValue(String field) {
+        return docValue(field, null);
+    }
+
+    public EsProjection docValue(String field, String format) {
+        docValueFields.put(field, format);
+        return this;
+    }
+
+    public SearchSourceBuilder applyTo(SearchSourceBuilder source) {
+        if (fullSource) {
+            source.fetchSource(true);
+        } else if (sourceFields.isEmpty()) {
+            source.fetchSource(false);
+        } else {
+            source.fetchSource(sourceFields.toArray(new String[0]), null);
+        }
+
+        docValueFields.forEach(source::docValueField);
+        return source;
+    }
+
+    public boolean isFullSource() {
+        return fullSource;
+    }
+
+    public List<String> getSourceFields() {
+        return sourceFields;
+    }
+
+    public Map<String, String> getDocValueFields() {
+        return docValueFields;
+    }
+
+    @Override
+    public String toString() {
+        return "EsProjection{" +
+                "fullSource=" + fullSource +
+                ", sourceFields=" + sourceFields +
+                ", docValueFields=" + docValueFields.keySet() +
+                '}';
+    }
+
+    private final boolean fullSource;
+
+    private final List<String> sourceFields = new ArrayList<>();
+
+    private final Map<String, String> docValueFields = new LinkedHashMap<>();
+}
@@ -0,0 +1,251 @@
+package com.github.elasticsearch.search;
+
+import com.github.elasticsearch.codec.EsDocumentCodec;
+import com.github.elasticsearch.model.AbstractEsDocument;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.ClearScrollRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.slice.SliceBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * sliced scroll로 index 전체를 병렬로 읽는 iterator.
+ * slice마다 소비 중인 page 하나와 미리 읽은 page 하나만 유지하므로 메모리 사용량은 slices * pageSize * 2 건으로 제한되고,
+ * 소비자가 page를 가져가야 해당 slice의 다음 page를 요청한다.
+ * 끝까지 읽거나 {@link #close()}를 호출하면 남아 있는 scroll context를 정리한다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EsScanIterator<T extends AbstractEsDocument> implements Iterator<T>, Closeable {
+    public EsScanIterator(Client client, String index, Class<T> type, EsDocumentCodec documentCodec, EsScanOptions options, int sliceCount) {
+        assert client != null && index != null && type != null && documentCodec != null && sliceCount > 0;
+
+        this.client = client;
+        this.type = type;
+        this.documentCodec = documentCodec;
+        this.keepAlive = TimeValue.timeValueMillis(options.getKeepAliveMillis());
+        this.pollTimeoutMillis = options.getPollTimeoutMillis();
+        this.activeSlices = sliceCount;
+
+        for (int id = 0; id < sliceCount; id++) {
+            SearchSourceBuilder source = new SearchSourceBuilder()
+                    .query(options.getQuery())
+                    .size(options.getPageSize())
+                    .sort(FieldSortBuilder.DOC_FIELD_NAME)
+                    .version(true)
+                    .seqNoAndPrimaryTerm(true);
+
+            if (sliceCount > 1) {
+                source.slice(new SliceBuilder(id, sliceCount));
+            }
+
+            Slice slice = new Slice();
+            this.slices.add(slice);
+            slice.start(new SearchRequest(index).source(source).scroll(keepAlive));
+        }
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.NONNULL), false).onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (cursor >= hits.length) {
+            if (activeSlices == 0 || closed) {
+                close();
+                return false;
+            }
+
+            Page page = poll();
+
+            if (page.failure != null) {
+                close();
+                throw new ElasticsearchException("scan 요청이 실패했습니다.", page.failure);
+            }
+
+            if (page.hits == null) {
+                activeSlices--;
+                continue;
+            }
+
+            page.slice.fetchNext();
+            hits = page.hits;
+            cursor = 0;
+        }
+
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        SearchHit hit = hits[cursor];
+        hits[cursor++] = null;
+
+        return documentCodec.fromSearchHit(hit, type);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        queue.clear();
+
+        for (Slice slice : slices) {
+            slice.clearScroll();
+        }
+    }
+
+    private Page poll() {
+        try {
+            Page page = queue.poll(pollTimeoutMillis, TimeUnit.MILLISECONDS);
+
+            if (page == null) {
+                close();
+                throw new ElasticsearchTimeoutException("{}ms 안에 scan 결과를 받지 못했습니다.", pollTimeoutMillis);
+            }
+
+            return page;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new ElasticsearchException(e);
+        }
+    }
+
+    private class Slice {
+        private void start(SearchRequest request) {
+            try {
+                client.search(request, listener());
+            } catch (Exception e) {
+                queue.add(new Page(this, null, e));
+            }
+        }
+
+        private void fetchNext() {
+            if (closed || scrollId == null) {
+                return;
+            }
+
+            try {
+                client.searchScroll(new SearchScrollRequest(scrollId).scroll(keepAlive), listener());
+            } catch (Exception e) {
+                queue.add(new Page(this, null, e));
+            }
+        }
+
+        private ActionListener<SearchResponse> listener() {
+            return ActionListener.wrap(this::onResponse, e -> queue.add(new Page(this, null, e)));
+        }
+
+        private void onResponse(SearchResponse response) {
+            scrollId = response.getScrollId();
+
+            if (closed) {
+                clearScroll();
+                return;
+            }
+
+            if (response.getFailedShards() > 0) {
+                queue.add(new Page(this, null, new ElasticsearchException("일부 shard에서 scan이 실패했습니다. failed shards : {}",
+                        response.getFailedShards())));
+                return;
+            }
+
+            SearchHit[] pageHits = response.getHits().getHits();
+
+            if (pageHits.length == 0) {
+                clearScroll();
+                queue.add(new Page(this, null, null));
+            } else {
+                queue.add(new Page(this, pageHits, null));
+            }
+        }
+
+        private void clearScroll() {
+            String clearingScrollId = scrollId;
+            scrollId = null;
+
+            if (clearingScrollId == null) {
+                return;
+            }
+
+            ClearScrollRequest request = new ClearScrollRequest();
+            request.addScrollId(clearingScrollId);
+
+            try {
+                client.clearScroll(request, ActionListener.wrap(
+                        response -> {},
+                        e -> logger.warn("scroll context 정리에 실패했습니다.", e)));
+            } catch (Exception e) {
+                logger.warn("scroll context 정리에 실패했습니다.", e);
+            }
+        }
+
+        private volatile String scrollId;
+    }
+
+    private class Page {
+        private Page(Slice slice, SearchHit[] hits, Exception failure) {
+            this.slice = slice;
+            this.hits = hits;
+            this.failure = failure;
+        }
+
+        private final Slice slice;
+
+        private final SearchHit[] hits;
+
+        private final Exception failure;
+    }
+
+    private static final SearchHit[] EMPTY_HITS = new SearchHit[0];
+
+    private final Client client;
+
+    private final Class<T> type;
+
+    private final EsDocumentCodec documentCodec;
+
+    private final TimeValue keepAlive;
+
+    private final long pollTimeoutMillis;
+
+    private final List<Slice> slices = new ArrayList<>();
+
+    private final BlockingQueue<Page> queue = new LinkedBlockingQueue<>();
+
+    private SearchHit[] hits = EMPTY_HITS;
+
+    private int cursor;
+
+    private int activeSlices;
+
+    private volatile boolean closed;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+}
@@ -0,0 +1,67 @@
+package com.github.elasticsearch.search;
+
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+
+@SuppressWarnings("WeakerAccess")
+public class EsScanOptions {
+    private QueryBuilder query = QueryBuilders.matchAllQuery();
+    private int slices = 0;
+    private int pageSize = 1_000;
+    private long keepAliveMillis = 60_000L;
+    private long pollTimeoutMillis = 120_000L;
+
+    public EsScanOptions() {
+    }
+
+    public QueryBuilder getQuery() {
+        return query;
+    }
+
+    public void setQuery(QueryBuilder query) {
+        this.query = query;
+    }
+
+    public int getSlices() {
+        return slices;
+    }
+
+    public void setSlices(int slices) {
+        this.slices = slices;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public long getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    public void setKeepAliveMillis(long keepAliveMillis) {
+        this.keepAliveMillis = keepAliveMillis;
+    }
+
+    public long getPollTimeoutMillis() {
+        return pollTimeoutMillis;
+    }
+
+    public void setPollTimeoutMillis(long pollTimeoutMillis) {
+        this.pollTimeoutMillis = pollTimeoutMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "EsScanOptions{" +
+                "query=" + query +
+                ", slices=" + slices +
+                ", pageSize=" + pageSize +
+                ", keepAliveMillis=" + keepAliveMillis +
+                ", pollTimeoutMillis=" + pollTimeoutMillis +
+                '}';
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.elasticsearch.settings;
+
+import org.elasticsearch.common.settings.Settings;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 용도별 index 설정 preset.
+ * refresh 주기, translog 내구성, merge policy, codec을 묶어 두며 {@link EsIndexSettings}에서 index 설정에 덮어쓴다.
+ */
+public enum EsIndexProfile {
+    DEFAULT(Settings.EMPTY),
+
+    BULK_LOAD(Settings.builder()
+            .put(EsIndexSettings.NUMBER_OF_REPLICAS, "0")
+            .put(EsIndexSettings.REFRESH_INTERVAL, "-1")
+            .put(EsIndexSettings.TRANSLOG_DURABILITY, "async")
+            .put(EsIndexSettings.TRANSLOG_SYNC_INTERVAL, "30s")
+            .put(EsIndexSettings.TRANSLOG_FLUSH_THRESHOLD_SIZE, "1gb")
+            .put(EsIndexSettings.MERGE_SCHEDULER_MAX_THREAD_COUNT, "1")
+            .build()),
+
+    SEARCH_OPTIMIZED(Settings.builder()
+            .put(EsIndexSettings.REFRESH_INTERVAL, "30s")
+            .put(EsIndexSettings.TRANSLOG_DURABILITY, "request")
+            .put(EsIndexSettings.MERGE_POLICY_SEGMENTS_PER_TIER, "5")
+            .put(EsIndexSettings.MERGE_POLICY_MAX_MERGE_AT_ONCE, "5")
+            .put(EsIndexSettings.CODEC, "best_compression")
+            .build()),
+
+    WRITE_HEAVY(Settings.builder()
+            .put(EsIndexSettings.REFRESH_INTERVAL, "30s")
+            .put(EsIndexSettings.TRANSLOG_DURABILITY, "async")
+            .put(EsIndexSettings.TRANSLOG_SYNC_INTERVAL, "5s")
+            .put(EsIndexSettings.TRANSLOG_FLUSH_THRESHOLD_SIZE, "1gb")
+            .put(EsIndexSettings.MERGE_POLICY_SEGMENTS_PER_TIER, "20")
+            .put(EsIndexSettings.MERGE_POLICY_FLOOR_SEGMENT, "10mb")
+            .build());
+
+    EsIndexProfile(Settings settings) {
+        this.settings = settings;
+    }
+
+    public Settings settings() {
+        return settings;
+    }
+
+    static Set<String> managedKeys() {
+        return MANAGED_KEYS;
+    }
+
+    private static final Set<String> MANAGED_KEYS;
+
+    static {
+        Set<String> keys = new TreeSet<>();
+
+        for (EsIndexProfile profile : values()) {
+            keys.addAll(profile.settings.keySet());
+        }
+
+        MANAGED_KEYS = Collections.unmodifiableSet(keys);
+    }
+
+    private final Settings settings;
+}
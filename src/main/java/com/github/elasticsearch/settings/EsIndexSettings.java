@@ -0,0 +1,207 @@
+package com.github.elasticsearch.settings;
+
+import com.github.elasticsearch.model.AbstractEsIndexParam;
+import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
+import org.elasticsearch.common.settings.IndexScopedSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.XContentType;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * index param의 settingsJsonString, shards, replicas, profile, mapping을 하나의 create 요청으로 합치는 builder.
+ * 값은 settingsJsonString, shards/replicas, profile, {@link #put(String, String)} 순서로 덮어쓰며
+ * {@link #build()}에서 builder가 넣는 shards, replicas, profile 설정의 값 형식을 검증한다.
+ * settingsJsonString과 {@link #put(String, String)}에는 plugin 설정(예: index.knn)이 올 수 있으므로,
+ * 이 값까지 알려진 index 설정인지 검사하려면 {@link #validate(boolean)}로 엄격한 검증을 켠다.
+ * {@link #buildDynamic()}은 운영 중인 index에 적용할 수 있는 dynamic 설정만 만들고,
+ * 다른 profile이 관리하는 설정 중 대상 profile에 없는 값은 null로 보내 기본값으로 되돌린다.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EsIndexSettings {
+    public static final String NUMBER_OF_SHARDS = "index.number_of_shards";
+
+    public static final String NUMBER_OF_REPLICAS = "index.number_of_replicas";
+
+    public static final String REFRESH_INTERVAL = "index.refresh_interval";
+
+    public static final String TRANSLOG_DURABILITY = "index.translog.durability";
+
+    public static final String TRANSLOG_SYNC_INTERVAL = "index.translog.sync_interval";
+
+    public static final String TRANSLOG_FLUSH_THRESHOLD_SIZE = "index.translog.flush_threshold_size";
+
+    public static final String MERGE_POLICY_SEGMENTS_PER_TIER = "index.merge.policy.segments_per_tier";
+
+    public static final String MERGE_POLICY_MAX_MERGE_AT_ONCE = "index.merge.policy.max_merge_at_once";
+
+    public static final String MERGE_POLICY_FLOOR_SEGMENT = "index.merge.policy.floor_segment";
+
+    public static final String MERGE_SCHEDULER_MAX_THREAD_COUNT = "index.merge.scheduler.max_thread_count";
+
+    public static final String CODEC = "index.codec";
+
+    public EsIndexSettings() {
+    }
+
+    public static EsIndexSettings of(AbstractEsIndexParam indexParam) {
+        return new EsIndexSettings()
+                .source(indexParam.getSettingsJsonString())
+                .shards(indexParam.getShards())
+                .replicas(indexParam.getReplicas())
+                .profile(indexParam.getProfile())
+                .mapping(indexParam.getTypeName(), indexParam.getMappingJsonString());
+    }
+
+    public EsIndexSettings source(String settingsJsonString) {
+        this.settingsJsonString = settingsJsonString;
+        return this;
+    }
+
+    public EsIndexSettings shards(String shards) {
+        this.shards = shards;
+        return this;
+    }
+
+    public EsIndexSettings replicas(String replicas) {
+        this.replicas = replicas;
+        return this;
+    }
+
+    public EsIndexSettings profile(EsIndexProfile profile) {
+        this.profile = profile == null ? EsIndexProfile.DEFAULT : profile;
+        return this;
+    }
+
+    public EsIndexSettings put(String key, String value) {
+        overrides.put(key, value);
+        return this;
+    }
+
+    public EsIndexSettings put(Settings settings) {
+        overrides.put(settings);
+        return this;
+    }
+
+    public EsIndexSettings mapping(String type, String mappingJsonString) {
+        this.type = type;
+        this.mappingJsonString = mappingJsonString;
+        return this;
+    }
+
+    public EsIndexSettings validate(boolean validate) {
+        this.validate = validate;
+        return this;
+    }
+
+    public Settings build() {
+        Settings.Builder builder = Settings.builder();
+
+        if (StringUtils.isNotBlank(settingsJsonString)) {
+            builder.loadFromSource(settingsJsonString, XContentType.JSON);
+        }
+
+        builder.normalizePrefix(INDEX_PREFIX);
+
+        if (StringUtils.isNotBlank(shards)) {
+            builder.put(NUMBER_OF_SHARDS, shards);
+        }
+
+        if (StringUtils.isNotBlank(replicas)) {
+            builder.put(NUMBER_OF_REPLICAS, replicas);
+        }
+
+        Settings settings = builder
+                .put(profile.settings())
+                .put(overrides.build())
+                .normalizePrefix(INDEX_PREFIX)
+                .build();
+
+        validate(settings);
+        return settings;
+    }
+
+    public Settings buildDynamic() {
+        Settings settings = build();
+        Settings.Builder builder = Settings.builder();
+
+        for (String key : EsIndexProfile.managedKeys()) {
+            if (settings.get(key) == null && IndexScopedSettings.DEFAULT_SCOPED_SETTINGS.isDynamicSetting(key)) {
+                builder.putNull(key);
+            }
+        }
+
+        for (String key : settings.keySet()) {
+            if (IndexScopedSettings.DEFAULT_SCOPED_SETTINGS.isDynamicSetting(key)) {
+                builder.copy(key, settings);
+            }
+        }
+
+        return builder.build();
+    }
+
+    public CreateIndexRequest toCreateIndexRequest(String index) {
+        return applyTo(new CreateIndexRequest(index));
+    }
+
+    public CreateIndexRequest applyTo(CreateIndexRequest request) {
+        if (StringUtils.isBlank(mappingJsonString)) {
+            throw new IllegalStateException("mapping이 없습니다. index : " + request.index());
+        }
+
+        return request
+                .settings(build())
+                .mapping(type, mappingJsonString, XContentType.JSON);
+    }
+
+    @Override
+    public String toString() {
+        return "EsIndexSettings{" +
+                "shards='" + shards + '\'' +
+                ", replicas='" + replicas + '\'' +
+                ", profile=" + profile +
+                ", overrides=" + overrides.build() +
+                ", validate=" + validate +
+                '}';
+    }
+
+    private void validate(Settings settings) {
+        if (settings.get(NUMBER_OF_SHARDS) != null && settings.getAsInt(NUMBER_OF_SHARDS, 1) < 1) {
+            throw new IllegalStateException("shards는 1 이상이어야 합니다. shards : " + settings.get(NUMBER_OF_SHARDS));
+        }
+
+        if (settings.get(NUMBER_OF_REPLICAS) != null && settings.getAsInt(NUMBER_OF_REPLICAS, 0) < 0) {
+            throw new IllegalStateException("replicas는 0 이상이어야 합니다. replicas : " + settings.get(NUMBER_OF_REPLICAS));
+        }
+
+        Set<String> managedKeys = new HashSet<>(profile.settings().keySet());
+        managedKeys.add(NUMBER_OF_SHARDS);
+        managedKeys.add(NUMBER_OF_REPLICAS);
+
+        try {
+            IndexScopedSettings.DEFAULT_SCOPED_SETTINGS.validate(validate ? settings : settings.filter(managedKeys::contains), true);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("잘못된 index 설정입니다. " + e.getMessage(), e);
+        }
+    }
+
+    private static final String INDEX_PREFIX = "index.";
+
+    private String settingsJsonString;
+
+    private String shards;
+
+    private String replicas;
+
+    private EsIndexProfile profile = EsIndexProfile.DEFAULT;
+
+    private final Settings.Builder overrides = Settings.builder();
+
+    private String type;
+
+    private String mappingJsonString;
+
+    private boolean validate;
+}
@@ -0,0 +1,101 @@
+package com.github.elasticsearch.bulk;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class EsBulkBufferPoolTest {
+    @Test
+    public void returnsPagesOnceEveryDocumentAndTheArenaReleaseThem() throws IOException {
+        EsBulkBufferPool pool = new EsBulkBufferPool(PAGE_SIZE * 4, PAGE_SIZE);
+        EsBulkBufferPool.Arena arena = pool.newArena();
+
+        ReleasableBytesReference first = arena.write(out -> out.write(bytes("abcd")));
+        ReleasableBytesReference second = arena.write(out -> out.write(bytes("efgh")));
+        assertEquals("abcd", first.utf8ToString());
+        assertEquals("efgh", second.utf8ToString());
+        assertEquals(PAGE_SIZE, pool.getInUseBytes());
+
+        first.close();
+        arena.close();
+        assertEquals(PAGE_SIZE, pool.getInUseBytes());
+
+        second.close();
+        assertEquals(0, pool.getInUseBytes());
+        assertEquals(1, pool.getFreePageCount());
+
+        EsBulkBufferPool.Arena reused = pool.newArena();
+        reused.write(out -> out.write(bytes("ijkl"))).close();
+        reused.close();
+        assertEquals(PAGE_SIZE, pool.getAllocatedBytes());
+        assertEquals(0, pool.getInUseBytes());
+    }
+
+    @Test
+    public void releasesPagesTouchedByAFailedWrite() throws IOException {
+        EsBulkBufferPool pool = new EsBulkBufferPool(PAGE_SIZE * 4, PAGE_SIZE);
+        EsBulkBufferPool.Arena arena = pool.newArena();
+
+        try {
+            arena.write(out -> {
+                out.write(bytes("0123456789abcdefghij"));
+                throw new IOException("serialization failure");
+            });
+            fail();
+        } catch (IOException e) {
+            assertEquals("serialization failure", e.getMessage());
+        }
+
+        ReleasableBytesReference next = arena.write(out -> out.write(bytes("ok")));
+        assertEquals("ok", next.utf8ToString());
+
+        next.close();
+        arena.close();
+        assertEquals(0, pool.getInUseBytes());
+        assertEquals(2, pool.getFreePageCount());
+    }
+
+    @Test
+    public void spansDocumentsLargerThanAPageAcrossPages() throws IOException {
+        EsBulkBufferPool pool = new EsBulkBufferPool(PAGE_SIZE * 4, PAGE_SIZE);
+        EsBulkBufferPool.Arena arena = pool.newArena();
+        String source = "0123456789abcdefghijklmnopqrstuvwxyzABCD";
+
+        ReleasableBytesReference document = arena.write(out -> out.write(bytes(source)));
+        assertEquals(source, document.utf8ToString());
+        assertEquals(source.length(), document.length());
+        assertArrayEquals(bytes(source), BytesReference.toBytes(document));
+        assertEquals(PAGE_SIZE * 3, pool.getInUseBytes());
+
+        arena.close();
+        assertEquals(PAGE_SIZE * 3, pool.getInUseBytes());
+
+        document.close();
+        assertEquals(0, pool.getInUseBytes());
+        assertEquals(3, pool.getFreePageCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsWritesAfterClose() throws IOException {
+        EsBulkBufferPool pool = new EsBulkBufferPool(PAGE_SIZE * 4, PAGE_SIZE);
+        EsBulkBufferPool.Arena arena = pool.newArena();
+        arena.close();
+
+        try {
+            arena.write(out -> out.write(bytes("late")));
+        } finally {
+            assertEquals(0, pool.getInUseBytes());
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final int PAGE_SIZE = 16;
+}
@@ -0,0 +1,127 @@
+package com.github.elasticsearch.bulk;
+
+import com.github.elasticsearch.codec.EsDocumentCodec;
+import com.github.elasticsearch.model.AbstractEsDocument;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.rest.RestStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EsBulkWriterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        client = new StubBulkClient();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+    }
+
+    @Test
+    public void spoolsDocumentsBufferedDuringAFailedBulkBehindIt() throws InterruptedException {
+        EsBulkOptions options = new EsBulkOptions();
+        options.setBulkActions(2);
+        options.setFlushIntervalMillis(0);
+        options.setSpoolDirectory(folder.getRoot().getPath());
+        options.setSpoolSegmentSizeInBytes(4096);
+        options.setSpoolReplayIntervalMillis(0);
+
+        client.rejectOnce("a", RestStatus.SERVICE_UNAVAILABLE);
+        client.holdResponses();
+
+        EsBulkWriter<TestDocument> writer = new EsBulkWriter<>(client, "writer-test", null, EsDocumentCodec.getInstance(), options, null);
+        writer.add(document("a", "old")).add(document("b", "b"));
+        writer.add(document("a", "new"));
+
+        client.releaseResponses();
+
+        while (writer.getSpooledCount() == 0) {
+            Thread.sleep(10);
+        }
+
+        writer.add(document("c", "c"));
+        writer.close();
+
+        assertEquals(Collections.singletonList(Arrays.asList("a", "b")), client.getBulks());
+        assertEquals(3, writer.getSpooledCount());
+
+        EsWriteSpool spool = new EsWriteSpool(client, options, null);
+        assertTrue(spool.replay());
+        spool.close();
+
+        assertEquals(Arrays.asList("a", "b", "a", "a", "c"), client.getSentIds());
+        assertEquals("{\"value\":\"new\"}", client.getSentSources().get(3));
+    }
+
+    @Test
+    public void failsNonTransientBulkFailuresWithoutSpooling() {
+        EsBulkOptions options = new EsBulkOptions();
+        options.setBulkActions(2);
+        options.setFlushIntervalMillis(0);
+        options.setSpoolDirectory(folder.getRoot().getPath());
+        options.setSpoolReplayIntervalMillis(0);
+
+        client.failNextBulk(new ElasticsearchException("mapping failure"));
+
+        EsBulkWriter<TestDocument> writer = new EsBulkWriter<>(client, "writer-test", null, EsDocumentCodec.getInstance(), options, null);
+        writer.add(document("a", "a")).add(document("b", "b"));
+        writer.add(document("c", "c")).add(document("d", "d"));
+        writer.close();
+
+        assertEquals(0, writer.getSpooledCount());
+        assertEquals(2, writer.getFailedCount());
+        assertEquals(2, writer.getSucceededCount());
+        assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c", "d")), client.getBulks());
+    }
+
+    @Test
+    public void rejectsAddsAfterCloseWithoutHoldingPooledPages() {
+        EsBulkOptions options = new EsBulkOptions();
+        options.setBulkActions(2);
+        options.setFlushIntervalMillis(0);
+
+        EsBulkBufferPool pool = new EsBulkBufferPool(64 * 1024, 1024);
+        EsBulkWriter<TestDocument> writer = new EsBulkWriter<>(client, "writer-test", null, EsDocumentCodec.getInstance(), options, null, pool);
+        writer.add(document("a", "a")).add(document("b", "b")).add(document("c", "c"));
+        writer.close();
+
+        assertEquals(0, pool.getInUseBytes());
+
+        try {
+            writer.add(document("d", "d"));
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals(0, pool.getInUseBytes());
+        }
+
+        assertEquals(3, writer.getSubmittedCount());
+        assertEquals(Arrays.asList(Arrays.asList("a", "b"), Collections.singletonList("c")), client.getBulks());
+    }
+
+    private static TestDocument document(String id, String value) {
+        TestDocument document = new TestDocument();
+        document.setId(id);
+        document.value = value;
+        return document;
+    }
+
+    public static class TestDocument extends AbstractEsDocument {
+        public String value;
+    }
+
+    private StubBulkClient client;
+}
@@ -0,0 +1,197 @@
+package com.github.elasticsearch.bulk;
+
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.transport.NoNodeAvailableException;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.rest.RestStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class EsWriteSpoolTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        client = new StubBulkClient();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+    }
+
+    @Test
+    public void replaysRecordsLeftByAProcessThatDidNotClose() {
+        EsBulkOptions options = options();
+        EsWriteSpool crashed = new EsWriteSpool(client, options, null);
+        crashed.append(requests(0, 5));
+
+        EsWriteSpool reopened = new EsWriteSpool(client, options, null);
+        assertTrue(reopened.hasPending());
+        assertTrue(reopened.replay());
+        assertEquals(ids(0, 5), client.getSentIds());
+        assertFalse(reopened.hasPending());
+        reopened.close();
+        crashed.close();
+
+        EsWriteSpool restarted = new EsWriteSpool(client, options, null);
+        assertFalse(restarted.hasPending());
+        restarted.close();
+    }
+
+    @Test
+    public void rollsOverToNewSegmentsAndDeletesReplayedOnes() throws IOException {
+        EsBulkOptions options = options();
+        options.setSpoolSegmentSizeInBytes(256);
+        options.setBulkActions(3);
+
+        EsWriteSpool spool = new EsWriteSpool(client, options, null);
+        spool.append(requests(0, 20));
+        assertTrue(segments().size() > 1);
+
+        assertTrue(spool.replay());
+        assertEquals(ids(0, 20), client.getSentIds());
+        assertTrue(client.getBulks().stream().allMatch(bulk -> bulk.size() <= 3));
+        assertEquals(1, segments().size());
+
+        spool.append(requests(20, 22));
+        assertTrue(spool.replay());
+        assertEquals(ids(0, 22), client.getSentIds());
+        spool.close();
+
+        EsWriteSpool reopened = new EsWriteSpool(client, options, null);
+        assertFalse(reopened.hasPending());
+        reopened.close();
+    }
+
+    @Test
+    public void ignoresCorruptTailAndAppendsOverIt() throws IOException {
+        EsBulkOptions options = options();
+        EsWriteSpool spool = new EsWriteSpool(client, options, null);
+        spool.append(requests(0, 3));
+        spool.close();
+
+        Path segment = segments().get(0);
+
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = HEADER_SIZE;
+
+            for (int i = 0; i < 2; i++) {
+                ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+                channel.read(length, position);
+                position += RECORD_HEADER_SIZE + length.getInt(0);
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(1);
+            channel.read(payload, position + RECORD_HEADER_SIZE);
+            payload.put(0, (byte) ~payload.get(0)).rewind();
+            channel.write(payload, position + RECORD_HEADER_SIZE);
+        }
+
+        EsWriteSpool reopened = new EsWriteSpool(client, options, null);
+        assertTrue(reopened.replay());
+        assertEquals(ids(0, 2), client.getSentIds());
+
+        reopened.append(requests(3, 4));
+        assertTrue(reopened.replay());
+        assertEquals(Arrays.asList("0", "1", "3"), client.getSentIds());
+        reopened.close();
+    }
+
+    @Test
+    public void commitsOnlyAcknowledgedBatches() {
+        EsBulkOptions options = options();
+        options.setBulkActions(2);
+
+        EsWriteSpool spool = new EsWriteSpool(client, options, null);
+        spool.append(requests(0, 5));
+
+        client.failNextBulk(new NoNodeAvailableException("stub"));
+        assertFalse(spool.replay());
+        assertEquals(Collections.singletonList(ids(0, 2)), client.getBulks());
+
+        client.rejectOnce("3", RestStatus.TOO_MANY_REQUESTS);
+        assertFalse(spool.replay());
+        assertEquals(Arrays.asList(ids(0, 2), ids(0, 2), ids(2, 4)), client.getBulks());
+        spool.close();
+
+        EsWriteSpool reopened = new EsWriteSpool(client, options, null);
+        assertTrue(reopened.replay());
+        assertEquals(Arrays.asList(ids(0, 2), ids(0, 2), ids(2, 4), ids(2, 4), ids(4, 5)), client.getBulks());
+        assertFalse(reopened.hasPending());
+        reopened.close();
+    }
+
+    @Test
+    public void skipsBatchesThatFailPermanently() {
+        EsBulkOptions options = options();
+        options.setBulkActions(2);
+
+        EsWriteSpool spool = new EsWriteSpool(client, options, null);
+        spool.append(requests(0, 4));
+
+        client.failNextBulk(new ElasticsearchException("mapping failure"));
+        assertTrue(spool.replay());
+        assertEquals(Arrays.asList(ids(0, 2), ids(2, 4)), client.getBulks());
+        assertEquals(2, spool.getFailedCount());
+        assertEquals(2, spool.getReplayedCount());
+        assertFalse(spool.hasPending());
+        spool.close();
+    }
+
+    private EsBulkOptions options() {
+        EsBulkOptions options = new EsBulkOptions();
+        options.setSpoolDirectory(folder.getRoot().getPath());
+        options.setSpoolSegmentSizeInBytes(4096);
+        options.setSpoolReplayIntervalMillis(0);
+        return options;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            return files.filter(path -> path.getFileName().toString().startsWith("segment-")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static List<DocWriteRequest<?>> requests(int from, int to) {
+        List<DocWriteRequest<?>> requests = new ArrayList<>();
+
+        for (int i = from; i < to; i++) {
+            requests.add(new IndexRequest("spool-test").id(String.valueOf(i)).source("{\"value\":" + i + "}", XContentType.JSON));
+        }
+
+        return requests;
+    }
+
+    private static List<String> ids(int from, int to) {
+        return IntStream.range(from, to).mapToObj(String::valueOf).collect(Collectors.toList());
+    }
+
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+
+    private StubBulkClient client;
+}
@@ -0,0 +1,158 @@
+package com.github.elasticsearch.bulk;
+
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.ActionType;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.admin.cluster.health.ClusterHealthAction;
+import org.elasticsearch.action.admin.cluster.health.ClusterHealthResponse;
+import org.elasticsearch.action.bulk.BulkAction;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.client.support.AbstractClient;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.node.Node;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * cluster 없이 bulk와 cluster health 요청에 응답하는 client. 받은 bulk를 순서대로 기록하고, 지정한 bulk나 문서를 한 번씩 실패시키거나 응답을 풀어 줄 때까지 미룬다.
+ */
+class StubBulkClient extends AbstractClient {
+    StubBulkClient() {
+        super(Settings.EMPTY, new ThreadPool(Settings.builder().put(Node.NODE_NAME_SETTING.getKey(), "stub").build()));
+    }
+
+    synchronized void failNextBulk(ElasticsearchException failure) {
+        nextBulkFailure = failure;
+    }
+
+    synchronized void rejectOnce(String id, RestStatus status) {
+        rejections.put(id, status);
+    }
+
+    synchronized void holdResponses() {
+        hold = new CountDownLatch(1);
+    }
+
+    synchronized void releaseResponses() {
+        hold.countDown();
+        hold = null;
+    }
+
+    synchronized List<List<String>> getBulks() {
+        return bulks.stream()
+                .map(requests -> requests.stream().map(IndexRequest::id).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+
+    synchronized List<String> getSentIds() {
+        return bulks.stream().flatMap(List::stream).map(IndexRequest::id).collect(Collectors.toList());
+    }
+
+    synchronized List<String> getSentSources() {
+        return bulks.stream().flatMap(List::stream).map(request -> request.source().utf8ToString()).collect(Collectors.toList());
+    }
+
+    @Override
+    public void close() {
+        ThreadPool.terminate(threadPool(), 10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <Request extends ActionRequest, Response extends ActionResponse> void doExecute(ActionType<Response> action,
+                                                                                              Request request,
+                                                                                              ActionListener<Response> listener) {
+        if (action == ClusterHealthAction.INSTANCE) {
+            listener.onResponse((Response) new ClusterHealthResponse("stub", new String[0], ClusterState.builder(ClusterName.DEFAULT).build()));
+        } else if (action == BulkAction.INSTANCE) {
+            CountDownLatch latch;
+
+            synchronized (this) {
+                latch = hold;
+            }
+
+            if (latch == null) {
+                respond((BulkRequest) request, (ActionListener<BulkResponse>) listener);
+            } else {
+                threadPool().generic().execute(() -> {
+                    try {
+                        latch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    respond((BulkRequest) request, (ActionListener<BulkResponse>) listener);
+                });
+            }
+        } else {
+            listener.onFailure(new UnsupportedOperationException(action.name()));
+        }
+    }
+
+    private void respond(BulkRequest request, ActionListener<BulkResponse> listener) {
+        BulkResponse response;
+
+        try {
+            response = respond(request);
+        } catch (ElasticsearchException e) {
+            listener.onFailure(e);
+            return;
+        }
+
+        listener.onResponse(response);
+    }
+
+    private synchronized BulkResponse respond(BulkRequest request) {
+        List<IndexRequest> requests = new ArrayList<>();
+
+        for (DocWriteRequest<?> item : request.requests()) {
+            requests.add((IndexRequest) item);
+        }
+
+        bulks.add(requests);
+
+        if (nextBulkFailure != null) {
+            ElasticsearchException failure = nextBulkFailure;
+            nextBulkFailure = null;
+            throw failure;
+        }
+
+        BulkItemResponse[] items = new BulkItemResponse[requests.size()];
+
+        for (int i = 0; i < items.length; i++) {
+            IndexRequest item = requests.get(i);
+            RestStatus status = rejections.remove(item.id());
+
+            items[i] = status == null ?
+                    new BulkItemResponse(i, DocWriteRequest.OpType.INDEX,
+                            new IndexResponse(new ShardId(item.index(), "_na_", 0), "_doc", item.id(), 1, 1, 1, true)) :
+                    new BulkItemResponse(i, DocWriteRequest.OpType.INDEX,
+                            new BulkItemResponse.Failure(item.index(), "_doc", item.id(), new ElasticsearchException("stub rejection"), status));
+        }
+
+        return new BulkResponse(items, 1);
+    }
+
+    private final List<List<IndexRequest>> bulks = new ArrayList<>();
+
+    private final Map<String, RestStatus> rejections = new HashMap<>();
+
+    private ElasticsearchException nextBulkFailure;
+
+    private CountDownLatch hold;
+}
@@ -0,0 +1,136 @@
+package com.github.elasticsearch.client;
+
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.ShardSearchFailure;
+import org.elasticsearch.search.internal.InternalSearchResponse;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class QueryResultCacheTest {
+    @Test
+    public void storesResultsOfLoadsThatSawNoInvalidation() {
+        QueryResultCache cache = newCache();
+        SearchResponse response = response();
+
+        put(cache, cache.load(), response);
+
+        assertSame(response, cache.get(INDICES, REQUEST));
+    }
+
+    @Test
+    public void skipsResultsOfLoadsInvalidatedWhileRunning() {
+        QueryResultCache cache = newCache();
+        QueryResultCache.Load load = cache.load();
+
+        cache.invalidate(INDEX);
+        put(cache, load, response());
+
+        assertNull(cache.get(INDICES, REQUEST));
+
+        put(cache, cache.load(), response());
+        assertNotNull(cache.get(INDICES, REQUEST));
+    }
+
+    @Test
+    public void invalidatingTheAliasSkipsLoadsOfTheIndicesItResolvedTo() {
+        QueryResultCache cache = newCache();
+        put(cache, cache.load(), response());
+
+        QueryResultCache.Load load = cache.load();
+        cache.invalidate(ALIAS);
+        assertNull(cache.get(INDICES, REQUEST));
+
+        put(cache, load, response());
+        assertNull(cache.get(INDICES, REQUEST));
+    }
+
+    @Test
+    public void skipsResultsUntilWritesBecomeVisibleOnRefresh() {
+        QueryResultCache cache = newCache();
+
+        cache.invalidate(60_000L, INDEX);
+        put(cache, cache.load(), response());
+        assertNull(cache.get(INDICES, REQUEST));
+
+        cache.refreshed(INDEX);
+        put(cache, cache.load(), response());
+        assertNotNull(cache.get(INDICES, REQUEST));
+    }
+
+    @Test
+    public void negativeRefreshIntervalSkipsResultsUntilRefreshed() {
+        QueryResultCache cache = newCache();
+
+        cache.invalidate(-1L, INDEX);
+        put(cache, cache.load(), response());
+        assertNull(cache.get(INDICES, REQUEST));
+
+        cache.invalidate(0L, INDEX);
+        put(cache, cache.load(), response());
+        assertNull(cache.get(INDICES, REQUEST));
+
+        cache.refreshed(INDEX);
+        put(cache, cache.load(), response());
+        assertNotNull(cache.get(INDICES, REQUEST));
+    }
+
+    @Test
+    public void prunesChangesNoOutstandingLoadDependsOn() {
+        QueryResultCache cache = newCache();
+
+        for (int generation = 0; generation < 100; generation++) {
+            cache.invalidate(String.format("products_%06d", generation));
+        }
+
+        assertEquals(0, cache.getChangeCount());
+
+        cache.invalidate(-1L, "pending");
+        cache.invalidate("other");
+        assertEquals(1, cache.getChangeCount());
+    }
+
+    @Test
+    public void keepsChangesUntilOutstandingLoadsFinish() {
+        QueryResultCache cache = newCache();
+        QueryResultCache.Load load = cache.load();
+
+        cache.invalidate(INDEX);
+        cache.invalidate("other");
+        assertEquals(2, cache.getChangeCount());
+
+        put(cache, load, response());
+        assertNull(cache.get(INDICES, REQUEST));
+
+        QueryResultCache.Load failed = cache.load();
+        cache.invalidate("another");
+        assertEquals(1, cache.getChangeCount());
+
+        cache.release(failed);
+        cache.invalidate("last");
+        assertEquals(0, cache.getChangeCount());
+
+        put(cache, cache.load(), response());
+        assertNotNull(cache.get(INDICES, REQUEST));
+    }
+
+    private static QueryResultCache newCache() {
+        return new QueryResultCache(100, 1024 * 1024, 0);
+    }
+
+    private static void put(QueryResultCache cache, QueryResultCache.Load load, SearchResponse response) {
+        cache.put(ALIAS, INDICES, REQUEST, load, response);
+    }
+
+    private static SearchResponse response() {
+        return new SearchResponse(InternalSearchResponse.empty(), null, 1, 1, 0, 1, ShardSearchFailure.EMPTY_ARRAY, SearchResponse.Clusters.EMPTY);
+    }
+
+    private static final String ALIAS = "products";
+
+    private static final String INDEX = "products_000001";
+
+    private static final String[] INDICES = {INDEX};
+
+    private static final String REQUEST = "{\"query\":{\"match_all\":{}}}";
+}